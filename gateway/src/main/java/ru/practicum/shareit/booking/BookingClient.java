@@ -1,33 +1,30 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerCallGuards;
+import ru.practicum.shareit.client.ShareItServerExchange;
+import ru.practicum.shareit.client.SingleFlight;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) { //SHAREIT_SERVER_URL
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ShareItServerExchange exchange, GatewayResponseCache responseCache,
+                         SingleFlight singleFlight, ServerCallGuards guards) {
+        super(API_PREFIX, exchange, responseCache, singleFlight, guards, "/items");
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -36,23 +33,39 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<Object>> getBookingsAfterCursor(long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
 
-    public ResponseEntity<Object> bookItem(long userId, BookingDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId, @Nullable String ifNoneMatch) {
+        return conditionalGet("/" + bookingId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> acceptOrDeclineBooking(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> acceptOrDeclineBooking(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getAllBookingsForUser(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> acceptOrDeclineBookings(long userId, List<Long> bookingIds, boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return bulkPatch("?approved={approved}", userId, parameters, bookingIds);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllBookingsForUser(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -61,4 +74,14 @@ public class BookingClient extends BaseClient {
         return get("/owner/?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<Object>> getAllBookingsForUserAfterCursor(long userId, BookingState state, String cursor,
+                                                                   Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner/?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
 }
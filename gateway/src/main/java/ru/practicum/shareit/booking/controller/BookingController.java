@@ -2,18 +2,22 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.exceptions.InCorrectStatusException;
+import ru.practicum.shareit.booking.exceptions.IncorrectBookingIdsException;
 import ru.practicum.shareit.booking.exceptions.IncorrectDateException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 import static ru.practicum.shareit.ConstantsForGateway.userIdHeader;
 
@@ -23,25 +27,34 @@ import static ru.practicum.shareit.ConstantsForGateway.userIdHeader;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int maxBookingDecisions = 100;
+
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsForBookers(@RequestHeader(userIdHeader) long userId,
-                                                        @RequestParam(name = "state", defaultValue = "all")
-                                                        String stateParam,
-                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
-                                                        Integer from,
-                                                        @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                        Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsForBookers(@RequestHeader(userIdHeader) long userId,
+                                                              @RequestParam(name = "state", defaultValue = "all")
+                                                              String stateParam,
+                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                                              Integer from,
+                                                              @Positive @RequestParam(name = "size", defaultValue = "10")
+                                                              Integer size,
+                                                              @RequestParam(name = "cursor", required = false)
+                                                              String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new InCorrectStatusException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            log.info("Получаем бронирование по критерию {}, userId={}, cursor={}, size={}", stateParam, userId,
+                    cursor, size);
+            return bookingClient.getBookingsAfterCursor(userId, state, cursor, size);
+        }
         log.info("Получаем бронирование по критерию {}, userId={}, from={}, size={}", stateParam, userId, from, size);
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(userIdHeader) long userId,
-                                           @RequestBody @Valid BookingDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(userIdHeader) long userId,
+                                                 @RequestBody @Valid BookingDto requestDto) {
         if (!requestDto.getEnd().isAfter(requestDto.getStart())) {
             log.debug("Incorrect date");
             throw new IncorrectDateException("Передана некорректная дата бронирования. " +
@@ -52,31 +65,57 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(userIdHeader) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(userIdHeader) long userId,
+                                                   @PathVariable Long bookingId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch) {
         log.info("Получаем бронирование {}, userId={}", bookingId, userId);
-        return bookingClient.getBooking(userId, bookingId);
+        return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(userIdHeader) long userId,
-                                                 @PathVariable long bookingId,
-                                                 @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader(userIdHeader) long userId,
+                                                       @PathVariable long bookingId,
+                                                       @RequestParam boolean approved) {
         log.info("Принимаем или отменяем бронирование {}, userId={}", bookingId, userId);
 
         return bookingClient.acceptOrDeclineBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public Mono<ResponseEntity<Object>> approveBookings(@RequestHeader(userIdHeader) long userId,
+                                                        @RequestParam boolean approved,
+                                                        @RequestBody List<Long> bookingIds) {
+        if (bookingIds.isEmpty() || bookingIds.size() > maxBookingDecisions) {
+            log.debug("Incorrect number of booking ids");
+            throw new IncorrectBookingIdsException("Передайте от 1 до " + maxBookingDecisions +
+                    " идентификаторов бронирований");
+        }
+        if (bookingIds.stream().anyMatch(id -> id == null || id <= 0)) {
+            log.debug("Incorrect booking id");
+            throw new IncorrectBookingIdsException("Идентификаторы бронирований должны быть положительными");
+        }
+        log.info("Принимаем или отменяем бронирования {}, userId={}", bookingIds, userId);
+        return bookingClient.acceptOrDeclineBookings(userId, bookingIds, approved);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsForUser(@RequestHeader(userIdHeader) long userId,
-                                                     @RequestParam(name = "state", defaultValue = "all")
-                                                     String stateParam,
-                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
-                                                     Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                     Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsForUser(@RequestHeader(userIdHeader) long userId,
+                                                           @RequestParam(name = "state", defaultValue = "all")
+                                                           String stateParam,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                                           Integer from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10")
+                                                           Integer size,
+                                                           @RequestParam(name = "cursor", required = false)
+                                                           String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new InCorrectStatusException("Unknown state: " + stateParam));
+        if (cursor != null) {
+            log.info("Получаем бронирование для владельца по критерию {}, userId={}, cursor={}, size={}", stateParam,
+                    userId, cursor, size);
+            return bookingClient.getAllBookingsForUserAfterCursor(userId, state, cursor, size);
+        }
         log.info("Получаем бронирование для владельца по критерию {}, userId={}, from={}, size={}", stateParam, userId,
                 from, size);
         return bookingClient.getAllBookingsForUser(userId, state, from, size);
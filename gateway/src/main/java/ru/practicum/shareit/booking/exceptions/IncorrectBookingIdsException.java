@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.exceptions;
+
+public class IncorrectBookingIdsException extends RuntimeException {
+    public IncorrectBookingIdsException(String message) {
+        super(message);
+    }
+}
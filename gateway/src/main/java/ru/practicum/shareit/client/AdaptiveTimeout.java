@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Timeout derived from observed latency the way TCP derives its retransmission timeout: a smoothed mean plus
+ * four smoothed deviations, kept between {@code minMs} and {@code maxMs}. Until the first response it is
+ * {@code maxMs}. A call that times out gives no sample, so, as in TCP, the timeout backs off instead: it doubles
+ * on every expiry, up to {@code maxMs}, until the next sampled response. A server that became slower than the
+ * timeout is reached again after a few expired calls rather than never.
+ */
+class AdaptiveTimeout {
+    private static final double ALPHA = 0.125;
+    private static final double BETA = 0.25;
+
+    private final long minMs;
+    private final long maxMs;
+    private double smoothedMs = -1;
+    private double deviationMs;
+    private long backoff = 1;
+
+    AdaptiveTimeout(long minMs, long maxMs) {
+        this.minMs = minMs;
+        this.maxMs = maxMs;
+    }
+
+    synchronized void record(long latencyMs) {
+        backoff = 1;
+        if (smoothedMs < 0) {
+            smoothedMs = latencyMs;
+            deviationMs = latencyMs / 2.0;
+            return;
+        }
+        deviationMs = (1 - BETA) * deviationMs + BETA * Math.abs(smoothedMs - latencyMs);
+        smoothedMs = (1 - ALPHA) * smoothedMs + ALPHA * latencyMs;
+    }
+
+    synchronized void expired() {
+        if (estimateMs() * backoff < maxMs) {
+            backoff *= 2;
+        }
+    }
+
+    long maxMs() {
+        return maxMs;
+    }
+
+    synchronized long currentMs() {
+        return Math.min(maxMs, estimateMs() * backoff);
+    }
+
+    private long estimateMs() {
+        if (smoothedMs < 0) {
+            return maxMs;
+        }
+        return Math.max(minMs, Math.min(maxMs, Math.round(smoothedMs + 4 * deviationMs)));
+    }
+}
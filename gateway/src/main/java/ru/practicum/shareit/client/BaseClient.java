@@ -2,116 +2,237 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private final String apiPrefix;
+    private final ShareItServerExchange exchange;
+    @Nullable
+    private final GatewayResponseCache responseCache;
+    @Nullable
+    private final SingleFlight singleFlight;
+    @Nullable
+    private final ServerCallGuard guard;
+    private final List<String> dependentPrefixes;
+
+    public BaseClient(String apiPrefix, ShareItServerExchange exchange) {
+        this(apiPrefix, exchange, null, null, null);
+    }
+
+    /**
+     * @param dependentPrefixes other resources whose cached responses embed this one and have to be
+     *                          evicted on every write, e.g. items show their bookings
+     */
+    public BaseClient(String apiPrefix, ShareItServerExchange exchange, @Nullable GatewayResponseCache responseCache,
+                      @Nullable SingleFlight singleFlight, @Nullable ServerCallGuards guards,
+                      String... dependentPrefixes) {
+        this.apiPrefix = apiPrefix;
+        this.exchange = exchange;
+        this.responseCache = responseCache;
+        this.singleFlight = singleFlight;
+        this.guard = guards != null ? guards.guardFor(apiPrefix) : null;
+        this.dependentPrefixes = List.of(dependentPrefixes);
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
+        return get(path, null, null);
+    }
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
+        return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path) {
-        return get(path, null, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
-        return get(path, userId, null);
+    /**
+     * Conditional GET: the client's {@code If-None-Match} goes to the server, which answers 304 without a body
+     * when the entity is unchanged; the server's {@code ETag} is forwarded back either way.
+     */
+    protected Mono<ResponseEntity<Object>> conditionalGet(String path, @Nullable Long userId, @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, ifNoneMatch);
+    }
+
+    /**
+     * GET of a single entity answered from {@link GatewayResponseCache} when possible.
+     */
+    protected Mono<ResponseEntity<Object>> cachedGet(String path) {
+        return cachedGet(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, @Nullable Long userId) {
+        return cachedGet(path, userId, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * A cached 200 keeps the server's {@code ETag}, so a matching {@code If-None-Match} is still turned into 304
+     * by the gateway itself; on a miss the validator is forwarded and a 304 from the server is not cached.
+     */
+    protected Mono<ResponseEntity<Object>> cachedGet(String path, @Nullable Long userId, @Nullable String ifNoneMatch) {
+        if (responseCache == null) {
+            return conditionalGet(path, userId, ifNoneMatch);
+        }
+        String cachePath = apiPrefix + path;
+        return Mono.defer(() -> {
+            GatewayResponseCache.Lookup lookup = responseCache.lookup(cachePath, userId);
+            if (lookup.getResponse() != null) {
+                return Mono.just(lookup.getResponse());
+            }
+            return conditionalGet(path, userId, ifNoneMatch)
+                    .doOnNext(response -> responseCache.put(cachePath, userId, lookup, response));
+        });
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
+    }
+
+    /**
+     * POST of a large batch. It passes the circuit breaker and the bulkhead like any call, but may take up to the
+     * full read timeout: the adaptive timeout follows single-entity latency and would cut a batch off halfway.
+     */
+    protected <T> Mono<ResponseEntity<Object>> bulkPost(String path, long userId, T body) {
+        return bulkSend(HttpMethod.POST, path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    /**
+     * PATCH of a large batch, guarded like {@link #bulkPost}. Every cached response of the client is evicted
+     * afterwards.
+     */
+    protected <T> Mono<ResponseEntity<Object>> bulkPatch(String path, long userId,
+                                                         @Nullable Map<String, Object> parameters, T body) {
+        return bulkSend(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                                @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId, ifNoneMatch);
+        if (method == HttpMethod.GET && singleFlight != null) {
+            return singleFlight.execute(requestKey(path, userId, parameters, ifNoneMatch),
+                    () -> send(method, path, parameters, headers, body));
+        }
+        Mono<ResponseEntity<Object>> response = send(method, path, parameters, headers, body);
+        if (method == HttpMethod.GET || responseCache == null) {
             return response;
         }
+        return response.doFinally(signal -> invalidateCachedResponses(path));
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private <T> Mono<ResponseEntity<Object>> bulkSend(HttpMethod method, String path, long userId,
+                                                      @Nullable Map<String, Object> parameters, T body) {
+        HttpHeaders headers = defaultHeaders(userId, null);
+        Mono<ResponseEntity<Object>> response = guard == null
+                ? exchange.exchange(method, apiPrefix + path, parameters, headers, body)
+                : guard.execute(route(method, path), timeout -> exchange.exchange(method, apiPrefix + path,
+                parameters, headers, body, timeout), false);
+        if (responseCache == null) {
+            return response;
+        }
+        return response.doFinally(signal -> {
+            invalidateCachedResponses(path);
+            // a batch update changes entities that are not named in its path
+            if (method != HttpMethod.POST) {
+                responseCache.invalidate(apiPrefix);
+            }
+        });
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    /**
+     * Only reads get the adaptive timeout, which follows their latency. A write is slower and may already be
+     * committed when the timeout fires, so it gets the full read timeout rather than failing a change that happened.
+     */
+    private Mono<ResponseEntity<Object>> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                              HttpHeaders headers, @Nullable Object body) {
+        if (guard == null) {
+            return exchange.exchange(method, apiPrefix + path, parameters, headers, body);
         }
+        return guard.execute(route(method, path), timeout -> exchange.exchange(method, apiPrefix + path, parameters,
+                headers, body, timeout), method == HttpMethod.GET);
+    }
 
-        return responseBuilder.build();
+    /**
+     * The route template of a call, e.g. {@code GET /{id}/comment}: ids and the query string are left out, so that
+     * every call of an endpoint shares one timeout estimator.
+     */
+    static String route(HttpMethod method, String path) {
+        return method + " " + path.split("\\?", 2)[0].replaceAll("/\\d+", "/{id}");
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private String requestKey(String path, Long userId, @Nullable Map<String, Object> parameters,
+                              @Nullable String ifNoneMatch) {
+        return apiPrefix + path + "|" + (parameters != null ? new TreeMap<>(parameters) : "") + "|" + userId
+                + "|" + ifNoneMatch;
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private void invalidateCachedResponses(String path) {
+        String[] segments = path.split("\\?", 2)[0].split("/");
+        if (segments.length > 1) {
+            responseCache.invalidate(apiPrefix + "/" + segments[1]);
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        dependentPrefixes.forEach(responseCache::invalidate);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private HttpHeaders defaultHeaders(Long userId, @Nullable String ifNoneMatch) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentType(exchange.wireFormat());
+        // responses stay JSON: they are forwarded to external clients byte for byte
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
         return headers;
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits how many calls one client may have in flight. A full bulkhead rejects at once instead of queueing,
+ * so a slow resource uses up its own permits only and the other clients keep theirs.
+ */
+class Bulkhead {
+    private final int maxConcurrent;
+    private final Semaphore permits;
+
+    Bulkhead(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    boolean tryAcquire() {
+        return permits.tryAcquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
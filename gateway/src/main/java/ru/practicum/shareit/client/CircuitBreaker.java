@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import java.time.Clock;
+
+/**
+ * Count-based circuit breaker. Closed: calls pass and the outcome of the last {@code windowSize} calls is kept;
+ * once at least {@code minimumCalls} are recorded and the failure rate reaches the threshold it opens. Open: calls
+ * are rejected for {@code openMs}, then it turns half-open and lets {@code halfOpenProbes} calls through. All of
+ * them succeeding closes it again, any failure opens it for another period.
+ */
+class CircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openMs;
+    private final int halfOpenProbes;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openMs, int halfOpenProbes,
+                   Clock clock) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMs = openMs;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && clock.millis() - openedAt >= openMs) {
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Gives back a permission that did not lead to a call, e.g. when the bulkhead was full.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.millis();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Successful responses of single-entity GETs, kept for a short time. Entries are keyed by path and
+ * X-Sharer-User-Id because the server shapes some answers by the caller (an owner sees bookings
+ * of the item). Writes proxied by this gateway evict the resource they touch; changes made through
+ * another gateway instance become visible once the entry expires.
+ */
+@Component
+public class GatewayResponseCache {
+    private static final String METRIC = "shareit.gateway.response-cache.";
+
+    private final Map<String, Entry> entries;
+    private final long ttlMs;
+    private final Clock clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long generation;
+
+    @Autowired
+    public GatewayResponseCache(@Value("${shareit-gateway.response-cache.max-size:1000}") int maxSize,
+                                @Value("${shareit-gateway.response-cache.ttl-ms:30000}") long ttlMs,
+                                MeterRegistry meterRegistry) {
+        this(maxSize, ttlMs, Clock.systemUTC());
+        FunctionCounter.builder(METRIC + "hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder(METRIC + "misses", misses, AtomicLong::get).register(meterRegistry);
+        Gauge.builder(METRIC + "hit-ratio", this, GatewayResponseCache::hitRatio).register(meterRegistry);
+        Gauge.builder(METRIC + "size", this, GatewayResponseCache::size).register(meterRegistry);
+    }
+
+    GatewayResponseCache(int maxSize, long ttlMs, Clock clock) {
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized Lookup lookup(String path, Long userId) {
+        String key = key(path, userId);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > clock.millis()) {
+            hits.incrementAndGet();
+            return new Lookup(entry.response, generation);
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.incrementAndGet();
+        return new Lookup(null, generation);
+    }
+
+    /**
+     * Stores a response fetched after {@code lookup}; skipped if a write invalidated anything meanwhile,
+     * since the response may predate it.
+     */
+    public synchronized void put(String path, Long userId, Lookup lookup, ResponseEntity<Object> response) {
+        if (lookup.generation == generation && response.getStatusCode().is2xxSuccessful()) {
+            entries.put(key(path, userId), new Entry(response, clock.millis() + ttlMs));
+        }
+    }
+
+    /**
+     * Evicts every cached response under {@code pathPrefix}, e.g. "/items/5" or "/items".
+     */
+    public synchronized void invalidate(String pathPrefix) {
+        generation++;
+        entries.keySet().removeIf(key -> key.equals(pathPrefix) || key.startsWith(pathPrefix + "/")
+                || key.startsWith(pathPrefix + "|"));
+    }
+
+    public synchronized double hitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private String key(String path, Long userId) {
+        return path + "|" + userId;
+    }
+
+    @RequiredArgsConstructor
+    public static class Lookup {
+        @Getter
+        private final ResponseEntity<Object> response;
+        private final long generation;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final ResponseEntity<Object> response;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * One connection pool shared by every client talking to shareit-server. The defaults of a
+ * bare HttpClient allow only two connections per route, which makes the gateway queue
+ * requests while the server is idle.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HttpClientConfig {
+    private static final String POOL_METRIC = "shareit.gateway.http.pool.";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route:100}") int maxPerRoute,
+            @Value("${shareit-server.pool.validate-after-inactivity-ms:2000}") int validateAfterInactivityMs) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMs);
+        return connectionManager;
+    }
+
+    /**
+     * Content compression is disabled so that gzip bodies from the server stay compressed: they are cached and
+     * forwarded as is, see {@link CompressedPassthroughAdvice}.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(
+            PoolingHttpClientConnectionManager shareitServerConnectionManager,
+            @Value("${shareit-server.pool.idle-timeout-ms:30000}") long idleTimeoutMs,
+            @Value("${shareit-server.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${shareit-server.read-timeout-ms:10000}") int readTimeoutMs,
+            @Value("${shareit-server.pool.acquire-timeout-ms:2000}") int acquireTimeoutMs) {
+        return HttpClients.custom()
+                .setConnectionManager(shareitServerConnectionManager)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS)
+                .disableContentCompression()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMs)
+                        .setSocketTimeout(readTimeoutMs)
+                        .setConnectionRequestTimeout(acquireTimeoutMs)
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient shareitServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+    }
+
+    @Bean
+    public MeterBinder shareitServerPoolMetrics(PoolingHttpClientConnectionManager shareitServerConnectionManager) {
+        return registry -> {
+            poolGauge(registry, shareitServerConnectionManager, "leased", PoolStats::getLeased);
+            poolGauge(registry, shareitServerConnectionManager, "available", PoolStats::getAvailable);
+            poolGauge(registry, shareitServerConnectionManager, "pending", PoolStats::getPending);
+            poolGauge(registry, shareitServerConnectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    private void poolGauge(MeterRegistry registry,
+                           PoolingHttpClientConnectionManager connectionManager, String name,
+                           ToIntFunction<PoolStats> stat) {
+        Gauge.builder(POOL_METRIC + name, connectionManager, manager -> stat.applyAsInt(manager.getTotalStats()))
+                .description("Connections to shareit-server: " + name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Reactive counterpart of {@link HttpClientConfig}: the same pool limits and timeouts applied to
+ * the Reactor Netty client. Pool metrics are published as reactor.netty.connection.provider.*.
+ * The server hop is gzip compressed here too, but Netty decompresses it and the gateway compresses its own
+ * responses again: there is no passthrough in the reactive mode.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHttpClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.idle-timeout-ms:30000}") long idleTimeoutMs,
+            @Value("${shareit-server.pool.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(idleTimeoutMs))
+                .evictInBackground(Duration.ofMillis(idleTimeoutMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ReactorClientHttpConnector shareitServerConnector(
+            ConnectionProvider shareitServerConnectionProvider,
+            @Value("${shareit-server.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${shareit-server.read-timeout-ms:10000}") long readTimeoutMs) {
+        return new ReactorClientHttpConnector(HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .compress(true)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs)));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RestTemplateExchange implements ShareItServerExchange {
+    private static final ThreadLocal<Integer> SOCKET_TIMEOUT_MS = new ThreadLocal<>();
+
+    private final RestTemplate rest;
+    private final MediaType wireFormat;
+
+    @Autowired
+    public RestTemplateExchange(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                HttpComponentsClientHttpRequestFactory shareitServerRequestFactory,
+                                @Value("${shareit-server.wire-format:json}") String wireFormat,
+                                Jackson2ObjectMapperBuilder objectMapperBuilder) { //SHAREIT_SERVER_URL
+        this(withSmileConverter(builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> shareitServerRequestFactory)
+                .build(), objectMapperBuilder), ShareItServerExchange.wireFormat(wireFormat));
+        shareitServerRequestFactory.setHttpContextFactory(perCallTimeout(shareitServerRequestFactory));
+    }
+
+    RestTemplateExchange(RestTemplate rest) {
+        this(rest, MediaType.APPLICATION_JSON);
+    }
+
+    RestTemplateExchange(RestTemplate rest, MediaType wireFormat) {
+        this.rest = rest;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public MediaType wireFormat() {
+        return wireFormat;
+    }
+
+    /**
+     * The default Smile converter uses a plain mapper without Boot's Jackson settings, e.g. dates as timestamps.
+     */
+    private static RestTemplate withSmileConverter(RestTemplate rest, Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        rest.getMessageConverters().removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+        rest.getMessageConverters().add(new MappingJackson2SmileHttpMessageConverter(
+                ShareItServerExchange.smileObjectMapper(objectMapperBuilder)));
+        return rest;
+    }
+
+    /**
+     * The call is made on the subscribing thread, which in the servlet gateway is the request thread.
+     */
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                 @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, parameters, new HttpEntity<>(body, headers)));
+    }
+
+    /**
+     * The call blocks the subscribing thread, so a {@code Mono.timeout} would answer the client but leave the
+     * thread waiting for the server. The timeout is applied as the socket timeout of this request instead.
+     */
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                 @Nullable Object body, Duration timeout) {
+        return Mono.fromCallable(() -> {
+            SOCKET_TIMEOUT_MS.set((int) timeout.toMillis());
+            try {
+                return send(method, path, parameters, new HttpEntity<>(body, headers));
+            } finally {
+                SOCKET_TIMEOUT_MS.remove();
+            }
+        }).onErrorMap(e -> e instanceof ResourceAccessException && e.getCause() instanceof SocketTimeoutException,
+                e -> new TimeoutException(e.getMessage()));
+    }
+
+    private static BiFunction<HttpMethod, URI, HttpContext> perCallTimeout(
+            HttpComponentsClientHttpRequestFactory requestFactory) {
+        return (method, uri) -> {
+            Integer timeoutMs = SOCKET_TIMEOUT_MS.get();
+            if (timeoutMs == null) {
+                return null;
+            }
+            RequestConfig defaults = requestFactory.getHttpClient() instanceof Configurable
+                    ? ((Configurable) requestFactory.getHttpClient()).getConfig()
+                    : RequestConfig.DEFAULT;
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.copy(defaults)
+                    .setSocketTimeout(timeoutMs)
+                    .build());
+            return context;
+        };
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                        HttpEntity<Object> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return ShareItServerExchange.toGatewayResponse(e.getStatusCode(), e.getResponseHeaders(),
+                    e.getResponseBodyAsByteArray());
+        }
+        return ShareItServerExchange.toGatewayResponse(shareitServerResponse.getStatusCode(),
+                shareitServerResponse.getHeaders(), shareitServerResponse.getBody());
+    }
+}
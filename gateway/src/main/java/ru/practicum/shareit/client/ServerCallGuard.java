@@ -0,0 +1,145 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.exceptions.ServerRejectedException;
+import ru.practicum.shareit.client.exceptions.ServerTimeoutException;
+import ru.practicum.shareit.client.exceptions.ServerUnavailableException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Protects the calls of one client (bookings, items, users or requests) with its own {@link CircuitBreaker} and
+ * {@link Bulkhead}, and an {@link AdaptiveTimeout} per route template such as {@code GET /{id}}: a search is far
+ * slower than a lookup by id and must not be cut off at the lookup's timeout. 5xx responses, timeouts and I/O
+ * errors count as failures; 4xx responses are the client's fault and count as successes.
+ */
+public class ServerCallGuard {
+    private final String client;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final long minTimeoutMs;
+    private final long maxTimeoutMs;
+    private final Map<String, AdaptiveTimeout> timeouts = new ConcurrentHashMap<>();
+    private final Counter circuitRejected;
+    private final Counter bulkheadRejected;
+    private final Counter timedOut;
+
+    ServerCallGuard(String client, CircuitBreaker circuitBreaker, Bulkhead bulkhead, long minTimeoutMs,
+                    long maxTimeoutMs, MeterRegistry meterRegistry) {
+        this.client = client;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.minTimeoutMs = minTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+        this.circuitRejected = Counter.builder("shareit.gateway.circuit.rejected")
+                .tag("client", client)
+                .description("Calls rejected because the circuit was open")
+                .register(meterRegistry);
+        this.bulkheadRejected = Counter.builder("shareit.gateway.bulkhead.rejected")
+                .tag("client", client)
+                .description("Calls rejected because the bulkhead was full")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("shareit.gateway.timeout.expired")
+                .tag("client", client)
+                .description("Calls that exceeded the adaptive timeout")
+                .register(meterRegistry);
+    }
+
+    ServerCallGuard(String client, CircuitBreaker circuitBreaker, Bulkhead bulkhead, long minTimeoutMs,
+                    long maxTimeoutMs) {
+        this(client, circuitBreaker, bulkhead, minTimeoutMs, maxTimeoutMs, new SimpleMeterRegistry());
+    }
+
+    /**
+     * @param route the route template of the call, e.g. {@code GET /{id}}; it picks the timeout estimator
+     * @param call  the upstream call, given the timeout it has to respect
+     */
+    public Mono<ResponseEntity<Object>> execute(String route, Function<Duration, Mono<ResponseEntity<Object>>> call) {
+        return execute(route, call, true);
+    }
+
+    /**
+     * @param adaptiveTimeout false for calls much slower than the usual ones, e.g. a bulk insert: they get the
+     *                        maximum timeout and their latency is not sampled
+     */
+    public Mono<ResponseEntity<Object>> execute(String route, Function<Duration, Mono<ResponseEntity<Object>>> call,
+                                                boolean adaptiveTimeout) {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitRejected.increment();
+                return Mono.error(new ServerRejectedException("Circuit for " + client + " is open"));
+            }
+            if (!bulkhead.tryAcquire()) {
+                circuitBreaker.release();
+                bulkheadRejected.increment();
+                return Mono.error(new ServerRejectedException("Too many concurrent calls to " + client));
+            }
+            AdaptiveTimeout timeout = timeout(route);
+            long timeoutMs = adaptiveTimeout ? timeout.currentMs() : timeout.maxMs();
+            long start = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return Mono.defer(() -> call.apply(Duration.ofMillis(timeoutMs)))
+                    .doOnNext(response -> {
+                        recorded.set(true);
+                        if (response.getStatusCode().is5xxServerError()) {
+                            circuitBreaker.onFailure();
+                        } else {
+                            if (adaptiveTimeout) {
+                                timeout.record(Duration.ofNanos(System.nanoTime() - start).toMillis());
+                            }
+                            circuitBreaker.onSuccess();
+                        }
+                    })
+                    .onErrorMap(e -> {
+                        recorded.set(true);
+                        circuitBreaker.onFailure();
+                        if (e instanceof TimeoutException) {
+                            timedOut.increment();
+                            if (adaptiveTimeout) {
+                                timeout.expired();
+                            }
+                            return new ServerTimeoutException("No response from " + client + " within "
+                                    + timeoutMs + " ms");
+                        }
+                        return new ServerUnavailableException("Call to " + client + " failed: " + e.getMessage());
+                    })
+                    .doFinally(signal -> {
+                        if (!recorded.get()) {
+                            circuitBreaker.release();
+                        }
+                        bulkhead.release();
+                    });
+        });
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    int activeCalls() {
+        return bulkhead.active();
+    }
+
+    AdaptiveTimeout timeout(String route) {
+        return timeouts.computeIfAbsent(route, r -> new AdaptiveTimeout(minTimeoutMs, maxTimeoutMs));
+    }
+
+    /**
+     * The longest timeout among the client's routes, the maximum before the first call.
+     */
+    long timeoutMs() {
+        return timeouts.values().stream()
+                .mapToLong(AdaptiveTimeout::currentMs)
+                .max()
+                .orElse(maxTimeoutMs);
+    }
+}
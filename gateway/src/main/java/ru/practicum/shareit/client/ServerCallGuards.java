@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link ServerCallGuard} per client, so that a slow resource such as /items/search exhausts the items
+ * bulkhead and opens the items circuit only, while bookings, users and requests keep working. Every setting
+ * under shareit-gateway.* can be overridden per client, e.g. shareit-gateway.bookings.bulkhead.max-concurrent.
+ */
+@Component
+public class ServerCallGuards {
+    private final Map<String, ServerCallGuard> guards = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    @Autowired
+    public ServerCallGuards(Environment environment, MeterRegistry meterRegistry) {
+        this(environment, meterRegistry, Clock.systemUTC());
+    }
+
+    ServerCallGuards(Environment environment, MeterRegistry meterRegistry, Clock clock) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    public ServerCallGuard guardFor(String apiPrefix) {
+        return guards.computeIfAbsent(apiPrefix.replace("/", ""), this::create);
+    }
+
+    private ServerCallGuard create(String client) {
+        ServerCallGuard guard = new ServerCallGuard(client,
+                new CircuitBreaker(
+                        property(client, "circuit-breaker.window-size", 20),
+                        property(client, "circuit-breaker.minimum-calls", 10),
+                        property(client, "circuit-breaker.failure-rate-threshold", 50),
+                        property(client, "circuit-breaker.open-ms", 10000),
+                        property(client, "circuit-breaker.half-open-probes", 3),
+                        clock),
+                new Bulkhead(property(client, "bulkhead.max-concurrent", 50)),
+                property(client, "timeout.min-ms", 200),
+                environment.getProperty("shareit-server.read-timeout-ms", Integer.class, 10000),
+                meterRegistry);
+        Gauge.builder("shareit.gateway.circuit.state", guard, g -> g.circuitState().ordinal())
+                .tag("client", client)
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.bulkhead.active", guard, ServerCallGuard::activeCalls)
+                .tag("client", client)
+                .description("Calls to the server in flight")
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.timeout.current", guard, ServerCallGuard::timeoutMs)
+                .tag("client", client)
+                .baseUnit("milliseconds")
+                .description("Longest timeout among the routes of the client")
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private int property(String client, String name, int defaultValue) {
+        int shared = environment.getProperty("shareit-gateway." + name, Integer.class, defaultValue);
+        return environment.getProperty("shareit-gateway." + client + "." + name, Integer.class, shared);
+    }
+}
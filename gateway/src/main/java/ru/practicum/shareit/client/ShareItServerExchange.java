@@ -0,0 +1,89 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static ru.practicum.shareit.ConstantsForGateway.nextCursorHeader;
+
+/**
+ * Sends a request to shareit-server. The servlet gateway uses a blocking {@link RestTemplateExchange},
+ * the reactive one a non-blocking {@link WebClientExchange}; clients do not depend on which one is active.
+ */
+public interface ShareItServerExchange {
+    List<String> FORWARDED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.ETAG, nextCursorHeader);
+
+    MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                          HttpHeaders headers, @Nullable Object body);
+
+    /**
+     * Same call bounded by {@code timeout}; a call that exceeds it fails with {@link TimeoutException}.
+     */
+    default Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                  @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                  @Nullable Object body, Duration timeout) {
+        return exchange(method, path, parameters, headers, body).timeout(timeout);
+    }
+
+    /**
+     * Content type of request bodies sent to the server, {@code shareit-server.wire-format=json|smile}.
+     */
+    default MediaType wireFormat() {
+        return MediaType.APPLICATION_JSON;
+    }
+
+    static MediaType wireFormat(String name) {
+        if ("smile".equalsIgnoreCase(name)) {
+            return SMILE;
+        }
+        if ("json".equalsIgnoreCase(name)) {
+            return MediaType.APPLICATION_JSON;
+        }
+        throw new IllegalArgumentException("Unknown shareit-server.wire-format: " + name);
+    }
+
+    static ObjectMapper smileObjectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return objectMapperBuilder
+                .createXmlMapper(false)
+                .factory(new SmileFactory())
+                .build();
+    }
+
+    /**
+     * The gateway does not transform server responses, so the body is forwarded as the raw bytes
+     * the server wrote instead of being parsed into a map and serialized again.
+     */
+    static ResponseEntity<Object> toGatewayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders,
+                                                    @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (serverHeaders != null) {
+            FORWARDED_HEADERS.forEach(header -> {
+                List<String> values = serverHeaders.get(header);
+                if (values != null) {
+                    responseBuilder.header(header, values.toArray(String[]::new));
+                }
+            });
+        }
+
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
+        }
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical GETs share one upstream call: the first caller starts it, everyone who
+ * asks for the same key before it completes gets the same response. Nothing is kept afterwards,
+ * so unlike {@link GatewayResponseCache} this never serves data older than the request itself.
+ */
+@Component
+public class SingleFlight {
+    private final Map<String, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+
+    @Autowired
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.coalesced = Counter.builder("shareit.gateway.single-flight.coalesced")
+                .description("GET requests answered by another request's upstream call")
+                .register(meterRegistry);
+    }
+
+    SingleFlight() {
+        this(new SimpleMeterRegistry());
+    }
+
+    public Mono<ResponseEntity<Object>> execute(String key, Supplier<Mono<ResponseEntity<Object>>> call) {
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> started = inFlight.get(key);
+            if (started != null) {
+                coalesced.increment();
+                return started;
+            }
+            AtomicReference<Mono<ResponseEntity<Object>>> created = new AtomicReference<>();
+            created.set(call.get()
+                    .doFinally(signal -> inFlight.remove(key, created.get()))
+                    .cache());
+            started = inFlight.putIfAbsent(key, created.get());
+            if (started != null) {
+                coalesced.increment();
+                return started;
+            }
+            return created.get();
+        });
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    double coalescedCount() {
+        return coalesced.count();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking exchange of the reactive gateway: no thread waits while the server answers.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebClientExchange implements ShareItServerExchange {
+    private final WebClient webClient;
+    private final MediaType wireFormat;
+
+    @Autowired
+    public WebClientExchange(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ReactorClientHttpConnector shareitServerConnector,
+                             @Value("${shareit-server.wire-format:json}") String wireFormat,
+                             Jackson2ObjectMapperBuilder objectMapperBuilder) { //SHAREIT_SERVER_URL
+        this(builder
+                .baseUrl(serverUrl)
+                .clientConnector(shareitServerConnector)
+                .codecs(codecs -> codecs.customCodecs().register(new Jackson2SmileEncoder(
+                        ShareItServerExchange.smileObjectMapper(objectMapperBuilder))))
+                .build(), ShareItServerExchange.wireFormat(wireFormat));
+    }
+
+    WebClientExchange(WebClient webClient) {
+        this(webClient, MediaType.APPLICATION_JSON);
+    }
+
+    WebClientExchange(WebClient webClient, MediaType wireFormat) {
+        this.webClient = webClient;
+        this.wireFormat = wireFormat;
+    }
+
+    @Override
+    public MediaType wireFormat() {
+        return wireFormat;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                 @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class)
+                .map(entity -> ShareItServerExchange.toGatewayResponse(entity.getStatusCode(), entity.getHeaders(),
+                        entity.getBody())));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.client.exceptions;
+
+/**
+ * The gateway refused to call the server, e.g. the circuit is open, so the request was never sent.
+ */
+public class ServerRejectedException extends ServerUnavailableException {
+    public ServerRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.client.exceptions;
+
+public class ServerTimeoutException extends RuntimeException {
+    public ServerTimeoutException(String message) {
+        super(message);
+    }
+}
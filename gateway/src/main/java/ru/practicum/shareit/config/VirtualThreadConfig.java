@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode (shareit.virtual-threads.enabled=true) that runs every request of the servlet gateway,
+ * including its blocking RestTemplate call, on its own virtual thread when the JDK provides them (21+).
+ * The project still compiles for Java 11, so the executor is looked up reflectively; on older JDKs
+ * Tomcat keeps its platform thread pool. Upstream concurrency stays bounded by the shared HTTP pool.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        Optional<ExecutorService> executor = newVirtualThreadPerTaskExecutor();
+        if (executor.isEmpty()) {
+            log.warn("Virtual threads are not available on Java {}, requests stay on Tomcat's thread pool",
+                    System.getProperty("java.specification.version"));
+            return protocolHandler -> {
+            };
+        }
+        log.info("Requests are dispatched on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor.get());
+    }
+
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -6,7 +6,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.booking.exceptions.InCorrectStatusException;
+import ru.practicum.shareit.booking.exceptions.IncorrectBookingIdsException;
 import ru.practicum.shareit.booking.exceptions.IncorrectDateException;
+import ru.practicum.shareit.client.exceptions.ServerTimeoutException;
+import ru.practicum.shareit.client.exceptions.ServerUnavailableException;
 
 @RestControllerAdvice
 @Slf4j
@@ -21,6 +24,15 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse incorrectBookingIdsHandler(final IncorrectBookingIdsException e) {
+        log.error(e.getMessage() + ". Ошибка: " + e.getClass().getName());
+        return new ErrorResponse(
+                e.getMessage()
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse inCorrectStatusHandler(final InCorrectStatusException e) {
@@ -29,4 +41,22 @@ public class ErrorHandler {
                 e.getMessage()
         );
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse serverUnavailableHandler(final ServerUnavailableException e) {
+        log.error(e.getMessage() + ". Ошибка: " + e.getClass().getName());
+        return new ErrorResponse(
+                e.getMessage()
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public ErrorResponse serverTimeoutHandler(final ServerTimeoutException e) {
+        log.error(e.getMessage() + ". Ошибка: " + e.getClass().getName());
+        return new ErrorResponse(
+                e.getMessage()
+        );
+    }
 }
@@ -1,42 +1,43 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerCallGuards;
+import ru.practicum.shareit.client.ShareItServerExchange;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) { //SHAREIT_SERVER_URL
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ShareItServerExchange exchange, GatewayResponseCache responseCache,
+                      SingleFlight singleFlight, ServerCallGuards guards) {
+        super(API_PREFIX, exchange, responseCache, singleFlight, guards, "/requests");
     }
 
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> importItems(long userId, List<ItemDto> items) {
+        return bulkPost("/import", userId, items);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getAllItemsByOwner(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByOwner(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -45,11 +46,11 @@ public class ItemClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId, @Nullable String ifNoneMatch) {
+        return cachedGet("/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> searchItem(long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchItem(long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -58,7 +59,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> postComment(long userId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> postComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
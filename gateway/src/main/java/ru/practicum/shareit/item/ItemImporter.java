@@ -0,0 +1,175 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.client.exceptions.ServerRejectedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.validations.FirstlyItemValidation;
+import ru.practicum.shareit.item.validations.SecondaryItemValidation;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a bulk item import: records are read one at a time from an NDJSON stream or a JSON array, checked
+ * with the same rules as {@code POST /items}, and the valid ones are sent to the server in chunks of
+ * {@code shareit-gateway.item-import.chunk-size}. A result per record is written as soon as its chunk is done,
+ * in the input order and in the input format, so memory use depends on the chunk size only. A chunk that was
+ * sent but got no answer, e.g. on a timeout, is reported as {@code outcomeUnknown} rather than failed.
+ */
+@Component
+@Slf4j
+public class ItemImporter {
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ItemImporter(ItemClient itemClient, ObjectMapper objectMapper, Validator validator,
+                        @Value("${shareit-gateway.item-import.chunk-size:500}") int chunkSize) {
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importItems(long userId, InputStream in, boolean ndjson, OutputStream out) throws IOException {
+        try (MappingIterator<ItemDto> records = objectMapper.readerFor(ItemDto.class).readValues(in);
+             SequenceWriter results = ndjson
+                     ? objectMapper.writer().withRootValueSeparator("\n").writeValues(out)
+                     : objectMapper.writer().writeValuesAsArray(out)) {
+            List<ImportRecord> chunk = new ArrayList<>(chunkSize);
+            int index = 0;
+            boolean readable = true;
+            while (readable) {
+                ImportRecord record = new ImportRecord(index);
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    record.item = records.nextValue();
+                    record.error = violations(record.item);
+                } catch (JsonMappingException e) {
+                    record.error = e.getOriginalMessage();
+                } catch (JsonProcessingException e) {
+                    // the rest of a malformed stream cannot be split into records
+                    record.error = e.getOriginalMessage();
+                    readable = false;
+                }
+                chunk.add(record);
+                index++;
+                if (chunk.size() == chunkSize || !readable) {
+                    send(userId, chunk, results);
+                    chunk.clear();
+                }
+            }
+            send(userId, chunk, results);
+            log.info("Импорт вещей завершён, userId={}, записей={}", userId, index);
+        }
+    }
+
+    private String violations(ItemDto item) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(item, SecondaryItemValidation.class,
+                FirstlyItemValidation.class);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+
+    private void send(long userId, List<ImportRecord> chunk, SequenceWriter results) throws IOException {
+        List<ImportRecord> valid = chunk.stream()
+                .filter(record -> record.error == null)
+                .collect(Collectors.toList());
+        if (!valid.isEmpty()) {
+            try {
+                ResponseEntity<Object> response = itemClient.importItems(userId, valid.stream()
+                        .map(record -> record.item)
+                        .collect(Collectors.toList())).block();
+                readServerResults(response, valid);
+            } catch (ServerRejectedException e) {
+                valid.forEach(record -> record.error = e.getMessage());
+            } catch (RuntimeException | IOException e) {
+                // the server may have committed the chunk before the answer was lost
+                log.warn("Результат импорта {} вещей неизвестен, userId={}: {}", valid.size(), userId, e.getMessage());
+                valid.forEach(record -> {
+                    record.error = e.getMessage();
+                    record.outcomeUnknown = true;
+                });
+            }
+        }
+        for (ImportRecord record : chunk) {
+            results.write(ItemImportResult.builder()
+                    .index(record.index)
+                    .id(record.id)
+                    .error(record.error)
+                    .outcomeUnknown(record.outcomeUnknown)
+                    .build());
+        }
+        results.flush();
+    }
+
+    /**
+     * The server numbers the records of a chunk from zero; a failed chunk fails all of its records.
+     */
+    private void readServerResults(ResponseEntity<Object> response, List<ImportRecord> sent) throws IOException {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            String error = response.getBody() != null
+                    ? objectMapper.readTree(body(response)).path("error").asText(response.getStatusCode().toString())
+                    : response.getStatusCode().toString();
+            sent.forEach(record -> record.error = error);
+            return;
+        }
+        try (MappingIterator<ItemImportResult> serverResults = objectMapper.readerFor(ItemImportResult.class)
+                .readValues(body(response))) {
+            while (serverResults.hasNextValue()) {
+                ItemImportResult result = serverResults.nextValue();
+                ImportRecord record = sent.get(result.getIndex());
+                record.id = result.getId();
+                record.error = result.getError();
+            }
+        }
+    }
+
+    private static InputStream body(ResponseEntity<Object> response) throws IOException {
+        InputStream body = new ByteArrayInputStream((byte[]) response.getBody());
+        if ("gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            return new GZIPInputStream(body);
+        }
+        return body;
+    }
+
+    private static class ImportRecord {
+        private final int index;
+        private ItemDto item;
+        private Long id;
+        private String error;
+        private Boolean outcomeUnknown;
+
+        ImportRecord(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one record of a bulk import: the id of the created item or the reason it was rejected.
+ * {@code index} is the zero-based position of the record in the uploaded stream. {@code outcomeUnknown} is set
+ * when the chunk was sent but no answer came back: its items may have been created and should be looked up
+ * before they are imported again.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    private int index;
+    private Long id;
+    private String error;
+    private Boolean outcomeUnknown;
+}
@@ -1,13 +1,14 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ServerCallGuards;
+import ru.practicum.shareit.client.ShareItServerExchange;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -16,31 +17,26 @@ import java.util.Map;
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) { //SHAREIT_SERVER_URL
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(ShareItServerExchange exchange, GatewayResponseCache responseCache,
+                         SingleFlight singleFlight, ServerCallGuards guards) {
+        super(API_PREFIX, exchange, responseCache, singleFlight, guards);
     }
 
 
-    public ResponseEntity<Object> createRequest(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequestsByRequestor(long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsByRequestor(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequestByRequestId(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getRequestByRequestId(long userId, long requestId, @Nullable String ifNoneMatch) {
+        return cachedGet("/" + requestId, userId, ifNoneMatch);
     }
 
 
-    public ResponseEntity<Object> getRequestsWithPagination(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getRequestsWithPagination(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -2,9 +2,11 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.RequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -22,31 +24,33 @@ public class ItemRequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(userIdHeader) long userId,
-                                                @RequestBody @Validated ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader(userIdHeader) long userId,
+                                                      @RequestBody @Validated ItemRequestDto itemRequestDto) {
         log.info("Создеам запрос {}, userId={}", itemRequestDto, userId);
         return requestClient.createRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsByRequestor(@RequestHeader(userIdHeader) long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsByRequestor(@RequestHeader(userIdHeader) long userId) {
         log.info("Вызван метод получения списка запросов на предмет для создателя запроса");
         return requestClient.getRequestsByRequestor(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestByRequestId(@RequestHeader(userIdHeader) long userId,
-                                                        @PathVariable long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestByRequestId(@RequestHeader(userIdHeader) long userId,
+                                                              @PathVariable long requestId,
+                                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                              String ifNoneMatch) {
         log.info("Вызван метод получения списка запросов на предмет для создателя запроса, {}", requestId);
-        return requestClient.getRequestByRequestId(userId, requestId);
+        return requestClient.getRequestByRequestId(userId, requestId, ifNoneMatch);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequestsWithPagination(@RequestHeader(userIdHeader) long userId,
-                                                            @PositiveOrZero @RequestParam(name = "from",
-                                                                    defaultValue = "0") Integer from,
-                                                            @Positive @RequestParam(name = "size",
-                                                                    defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getRequestsWithPagination(@RequestHeader(userIdHeader) long userId,
+                                                                  @PositiveOrZero @RequestParam(name = "from",
+                                                                          defaultValue = "0") Integer from,
+                                                                  @Positive @RequestParam(name = "size",
+                                                                          defaultValue = "10") Integer size) {
         log.info("Вызван метод получения списка запросов на предмет с пагинацией userId={}, from={}, size={}",
                 userId, from, size);
         return requestClient.getRequestsWithPagination(userId, from, size);
@@ -8,9 +8,12 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
@@ -23,6 +26,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -92,13 +96,13 @@ class BookingControllerTest {
 
         Mockito
                 .when(bookingClient.getBookings(1L, BookingState.ALL, 0, 10))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/bookings")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .param("state", "ALL")
                         .param("from", "0")
-                        .param("size", "10"))
+                        .param("size", "10")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
@@ -119,13 +123,13 @@ class BookingControllerTest {
 
         Mockito
                 .when(bookingClient.bookItem(1L, firstBookingDto))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(post("/bookings")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/bookings")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(firstBookingDto)))
+                        .content(objectMapper.writeValueAsString(firstBookingDto))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.item.name").value("PC"));
@@ -147,16 +151,30 @@ class BookingControllerTest {
         ResponseEntity<Object> responseEntity = ResponseEntity.ok(objectMapper.writeValueAsString(newBooking));
 
         Mockito
-                .when(bookingClient.getBooking(1L, 1L))
-                .thenReturn(responseEntity);
+                .when(bookingClient.getBooking(1L, 1L, null))
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/bookings/{bookingId}", newBooking.getId())
-                        .header("X-Sharer-User-Id", 1L))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/bookings/{bookingId}", newBooking.getId())
+                        .header("X-Sharer-User-Id", 1L)).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.item.name").value("PC"));
     }
 
+    @SneakyThrows
+    @Test
+    void getBookingPassesServerNotModifiedThrough() {
+        Mockito
+                .when(bookingClient.getBooking(1L, 1L, "\"v1\""))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"v1\"").build()));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")).andReturn()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""));
+    }
+
     @SneakyThrows
     @Test
     void approveBooking() {
@@ -184,14 +202,14 @@ class BookingControllerTest {
 
         Mockito
                 .when(bookingClient.acceptOrDeclineBooking(1L, 1L, true))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(patch("/bookings/1")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(patch("/bookings/1")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .param("approved", "true")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(oldBooking)))
+                        .content(objectMapper.writeValueAsString(oldBooking))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.status").value("APPROVED"));
@@ -215,14 +233,88 @@ class BookingControllerTest {
 
         Mockito
                 .when(bookingClient.getAllBookingsForUser(2L, BookingState.ALL, 0, 10))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/bookings/owner")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", String.valueOf(2L))
                         .param("state", "ALL")
                         .param("from", "0")
-                        .param("size", "10"))
+                        .param("size", "10")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getBookingsForBookersAfterCursor() {
+        ResponseEntity<Object> responseEntity = ResponseEntity.ok()
+                .header("X-Next-Cursor", "nextToken")
+                .body(objectMapper.writeValueAsString(List.of(firstBookingDto)));
+
+        Mockito
+                .when(bookingClient.getBookingsAfterCursor(1L, BookingState.ALL, "token", 10))
+                .thenReturn(Mono.just(responseEntity));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", String.valueOf(1L))
+                        .param("state", "ALL")
+                        .param("cursor", "token")
+                        .param("size", "10")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "nextToken"));
+        Mockito.verify(bookingClient, Mockito.never()).getBookings(Mockito.anyLong(), Mockito.any(),
+                Mockito.any(), Mockito.any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsForUserAfterCursor() {
+        ResponseEntity<Object> responseEntity = ResponseEntity.ok(objectMapper.writeValueAsString(List.of()));
+
+        Mockito
+                .when(bookingClient.getAllBookingsForUserAfterCursor(2L, BookingState.WAITING, "token", 5))
+                .thenReturn(Mono.just(responseEntity));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", String.valueOf(2L))
+                        .param("state", "WAITING")
+                        .param("cursor", "token")
+                        .param("size", "5")).andReturn()))
+                .andExpect(status().isOk());
+        Mockito.verify(bookingClient).getAllBookingsForUserAfterCursor(2L, BookingState.WAITING, "token", 5);
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookingsForwardsIdsAndDecision() {
+        Mockito
+                .when(bookingClient.acceptOrDeclineBookings(2L, List.of(1L, 3L), false))
+                .thenReturn(Mono.just(ResponseEntity.ok(objectMapper.writeValueAsString(List.of()))));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", String.valueOf(2L))
+                        .param("approved", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 3]")).andReturn()))
+                .andExpect(status().isOk());
+        Mockito.verify(bookingClient).acceptOrDeclineBookings(2L, List.of(1L, 3L), false);
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookingsRejectsEmptyOrInvalidIds() {
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", String.valueOf(2L))
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", String.valueOf(2L))
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 0]"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(bookingClient);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.booking.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.enums.BookingState;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * The same controllers served by the reactive gateway keep their validation and error mapping.
+ */
+@WebFluxTest(controllers = BookingController.class)
+class ReactiveBookingControllerTest {
+
+    @MockBean
+    BookingClient bookingClient;
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Test
+    void getBookingsForwardsServerResponse() {
+        byte[] serverBody = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        Mockito
+                .when(bookingClient.getBookings(1L, BookingState.ALL, 0, 10))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "token")
+                        .body(serverBody)));
+
+        webTestClient.get()
+                .uri("/bookings?state=ALL&from=0&size=10")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "token")
+                .expectBody().jsonPath("$[0].id").isEqualTo(1);
+    }
+
+    @Test
+    void bookingWithEndBeforeStartIsRejectedByErrorHandler() {
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+
+        webTestClient.post()
+                .uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("itemId", 1, "start", start.toString(), "end", start.minusDays(1).toString()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").exists();
+        Mockito.verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    void bookingWithoutDatesFailsValidation() {
+        webTestClient.post()
+                .uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("itemId", 1))
+                .exchange()
+                .expectStatus().isBadRequest();
+        Mockito.verifyNoInteractions(bookingClient);
+    }
+
+    @Test
+    void unknownStateIsMappedByErrorHandler() {
+        webTestClient.get()
+                .uri("/bookings?state=SOMETIMES")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody().jsonPath("$.error").isEqualTo("Unknown state: SOMETIMES");
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class GatewayResponseCacheTest {
+
+    Clock clock = Mockito.mock(Clock.class);
+    GatewayResponseCache cache;
+    List<String> upstreamCalls = new ArrayList<>();
+    List<HttpHeaders> upstreamHeaders = new ArrayList<>();
+    BaseClient itemClient;
+    BaseClient bookingClient;
+
+    @BeforeEach
+    void init() {
+        Mockito.when(clock.millis()).thenReturn(0L);
+        cache = new GatewayResponseCache(2, 1000, clock);
+        ShareItServerExchange exchange = (method, path, parameters, headers, body) -> {
+            upstreamCalls.add(method + " " + path);
+            upstreamHeaders.add(headers);
+            return Mono.just(ResponseEntity.ok(upstreamCalls.size()));
+        };
+        itemClient = new BaseClient("/items", exchange, cache, null, null, "/requests");
+        bookingClient = new BaseClient("/bookings", exchange, cache, null, null, "/items");
+    }
+
+    @Test
+    void repeatedGetIsServedFromCache() {
+        Object first = itemClient.cachedGet("/1", 1L).block().getBody();
+
+        Assertions.assertEquals(first, itemClient.cachedGet("/1", 1L).block().getBody());
+        Assertions.assertEquals(List.of("GET /items/1"), upstreamCalls);
+        Assertions.assertEquals(0.5, cache.hitRatio());
+    }
+
+    @Test
+    void ifNoneMatchIsForwardedOnMissOnly() {
+        itemClient.cachedGet("/1", 1L, "\"v1\"").block();
+        itemClient.cachedGet("/1", 1L, "\"v1\"").block();
+
+        Assertions.assertEquals(List.of("GET /items/1"), upstreamCalls);
+        Assertions.assertEquals(List.of("\"v1\""), upstreamHeaders.get(0).getIfNoneMatch());
+    }
+
+    @Test
+    void cacheIsKeyedBySharerUser() {
+        itemClient.cachedGet("/1", 1L).block();
+        itemClient.cachedGet("/1", 2L).block();
+
+        Assertions.assertEquals(2, upstreamCalls.size());
+    }
+
+    @Test
+    void expiredEntryIsFetchedAgain() {
+        itemClient.cachedGet("/1", 1L).block();
+        Mockito.when(clock.millis()).thenReturn(1000L);
+
+        itemClient.cachedGet("/1", 1L).block();
+
+        Assertions.assertEquals(2, upstreamCalls.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        itemClient.cachedGet("/1", 1L).block();
+        itemClient.cachedGet("/2", 1L).block();
+        itemClient.cachedGet("/1", 1L).block();
+        itemClient.cachedGet("/3", 1L).block();
+
+        itemClient.cachedGet("/2", 1L).block();
+
+        Assertions.assertEquals(List.of("GET /items/1", "GET /items/2", "GET /items/3", "GET /items/2"),
+                upstreamCalls);
+    }
+
+    @Test
+    void writeToResourceEvictsOnlyThatResource() {
+        itemClient.cachedGet("/1", 1L).block();
+        itemClient.cachedGet("/10", 1L).block();
+
+        itemClient.post("/1/comment", 2L, "great").block();
+        itemClient.cachedGet("/1", 1L).block();
+        itemClient.cachedGet("/10", 1L).block();
+
+        Assertions.assertEquals(List.of("GET /items/1", "GET /items/10", "POST /items/1/comment", "GET /items/1"),
+                upstreamCalls);
+    }
+
+    @Test
+    void bookingWriteEvictsItems() {
+        itemClient.cachedGet("/1", 1L).block();
+
+        bookingClient.patch("/5?approved={approved}", 1L, Map.of("approved", true), null).block();
+        itemClient.cachedGet("/1", 1L).block();
+
+        Assertions.assertEquals(3, upstreamCalls.size());
+        Assertions.assertEquals(HttpMethod.PATCH + " /bookings/5?approved={approved}", upstreamCalls.get(1));
+    }
+
+    @Test
+    void batchBookingUpdateEvictsEveryBooking() {
+        bookingClient.cachedGet("/1", 1L).block();
+        bookingClient.cachedGet("/2", 1L).block();
+
+        bookingClient.bulkPatch("?approved={approved}", 1L, Map.of("approved", true), List.of(1L, 2L)).block();
+        bookingClient.cachedGet("/1", 1L).block();
+        bookingClient.cachedGet("/2", 1L).block();
+
+        Assertions.assertEquals(List.of("GET /bookings/1", "GET /bookings/2", "PATCH /bookings?approved={approved}",
+                "GET /bookings/1", "GET /bookings/2"), upstreamCalls);
+    }
+
+    @Test
+    void responseFetchedBeforeWriteIsNotStored() {
+        GatewayResponseCache.Lookup lookup = cache.lookup("/items/1", 1L);
+        cache.invalidate("/items/1");
+
+        cache.put("/items/1", 1L, lookup, ResponseEntity.ok("stale"));
+
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    void errorResponsesAreNotStored() {
+        GatewayResponseCache.Lookup lookup = cache.lookup("/items/1", 1L);
+
+        cache.put("/items/1", 1L, lookup, ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        Assertions.assertEquals(0, cache.size());
+    }
+}
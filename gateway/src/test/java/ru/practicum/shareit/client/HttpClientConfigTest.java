@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HttpClientConfigTest {
+
+    HttpClientConfig config = new HttpClientConfig();
+    PoolingHttpClientConnectionManager connectionManager;
+
+    @BeforeEach
+    void init() {
+        connectionManager = config.shareitServerConnectionManager(50, 20, 2000);
+    }
+
+    @AfterEach
+    void close() {
+        connectionManager.close();
+    }
+
+    @Test
+    void poolUsesConfiguredLimits() {
+        Assertions.assertEquals(50, connectionManager.getMaxTotal());
+        Assertions.assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void poolStatsArePublishedAsGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        config.shareitServerPoolMetrics(connectionManager).bindTo(registry);
+
+        Assertions.assertEquals(50, registry.get("shareit.gateway.http.pool.max").gauge().value());
+        Assertions.assertEquals(0, registry.get("shareit.gateway.http.pool.leased").gauge().value());
+        Assertions.assertEquals(0, registry.get("shareit.gateway.http.pool.available").gauge().value());
+        Assertions.assertEquals(0, registry.get("shareit.gateway.http.pool.pending").gauge().value());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+class ReactiveGatewayContextTest {
+
+    @Autowired
+    ApplicationContext context;
+
+    @Test
+    void reactiveGatewayUsesWebClientAndNoServletPool() {
+        Assertions.assertTrue(context.getBean(ShareItServerExchange.class) instanceof WebClientExchange);
+        Assertions.assertTrue(context.getBeansOfType(HttpClientConfig.class).isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RestTemplateExchangeTest {
+
+    MockRestServiceServer server;
+    BaseClient client;
+
+    @BeforeEach
+    void init() {
+        RestTemplate rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient("", new RestTemplateExchange(rest));
+    }
+
+    @Test
+    void successfulResponseIsForwardedAsServerBytes() {
+        String json = "[{\"id\":1,\"name\":\"PC\",\"description\":\"Gaming PC\"}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "token");
+        headers.set("X-Internal", "secret");
+        server.expect(requestTo("/items?from=0"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(json, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/items?from={from}", 1L, Map.of("from", 0)).block();
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        Assertions.assertEquals("token", response.getHeaders().getFirst("X-Next-Cursor"));
+        Assertions.assertFalse(response.getHeaders().containsKey("X-Internal"));
+        server.verify();
+    }
+
+    @Test
+    void gzipResponseIsForwardedCompressed() throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write("[]".getBytes(StandardCharsets.UTF_8));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        server.expect(requestTo("/requests/all"))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess(gzipped.toByteArray(), MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/requests/all", 1L).block();
+
+        Assertions.assertArrayEquals(gzipped.toByteArray(), (byte[]) response.getBody());
+        Assertions.assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        server.verify();
+    }
+
+    @Test
+    void smileWireFormatEncodesRequestBody() throws IOException {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        RestTemplate rest = new RestTemplate();
+        rest.getMessageConverters().add(new MappingJackson2SmileHttpMessageConverter(smileMapper));
+        MockRestServiceServer smileServer = MockRestServiceServer.bindTo(rest).build();
+        BaseClient smileClient = new BaseClient("", new RestTemplateExchange(rest, ShareItServerExchange.SMILE));
+        smileServer.expect(requestTo("/users"))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile"))
+                .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(content().bytes(smileMapper.writeValueAsBytes(Map.of("name", "PC"))))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        smileClient.post("/users", Map.of("name", "PC")).block();
+
+        smileServer.verify();
+    }
+
+    @Test
+    void errorResponseKeepsStatusAndBody() {
+        String json = "{\"error\":\"userId: \\\"5\\\" не найден\"}";
+        server.expect(requestTo("/5"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(json.getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<Object> response = client.get("/5").block();
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        Assertions.assertEquals(json, new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyResponseHasNoBody() {
+        server.expect(requestTo("/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+
+        ResponseEntity<Object> response = client.delete("/1").block();
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertFalse(response.hasBody());
+    }
+}
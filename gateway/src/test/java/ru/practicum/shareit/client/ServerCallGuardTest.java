@@ -0,0 +1,297 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.client.exceptions.ServerTimeoutException;
+import ru.practicum.shareit.client.exceptions.ServerUnavailableException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+class ServerCallGuardTest {
+    static final String ROUTE = "GET /{id}";
+
+    Clock clock = Mockito.mock(Clock.class);
+    HttpStatus upstreamStatus = HttpStatus.OK;
+    List<String> upstreamCalls = new ArrayList<>();
+    List<Sinks.One<ResponseEntity<Object>>> pendingResponses = new ArrayList<>();
+    ShareItServerExchange exchange = (method, path, parameters, headers, body) -> Mono.defer(() -> {
+        upstreamCalls.add(method + " " + path);
+        return Mono.just(ResponseEntity.status(upstreamStatus).build());
+    });
+    ShareItServerExchange pendingExchange = (method, path, parameters, headers, body) -> Mono.defer(() -> {
+        upstreamCalls.add(method + " " + path);
+        Sinks.One<ResponseEntity<Object>> response = Sinks.one();
+        pendingResponses.add(response);
+        return response.asMono();
+    });
+
+    @BeforeEach
+    void init() {
+        Mockito.when(clock.millis()).thenReturn(0L);
+    }
+
+    @Test
+    void circuitOpensOnFailuresAndRejectsWithoutCallingServer() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        upstreamStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, call(guard).block().getStatusCode());
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, guard.circuitState());
+        Assertions.assertThrows(ServerUnavailableException.class, () -> call(guard).block());
+        Assertions.assertEquals(4, upstreamCalls.size());
+    }
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        upstreamStatus = HttpStatus.NOT_FOUND;
+
+        for (int i = 0; i < 10; i++) {
+            call(guard).block();
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState());
+    }
+
+    @Test
+    void halfOpenProbesCloseOrReopenCircuit() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        upstreamStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        for (int i = 0; i < 4; i++) {
+            call(guard).block();
+        }
+
+        Mockito.when(clock.millis()).thenReturn(1000L);
+        call(guard).block();
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, guard.circuitState());
+
+        Mockito.when(clock.millis()).thenReturn(2000L);
+        upstreamStatus = HttpStatus.OK;
+        call(guard).block();
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, guard.circuitState());
+        call(guard).block();
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.circuitState());
+    }
+
+    @Test
+    void halfOpenLetsOnlyProbesThrough() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        upstreamStatus = HttpStatus.BAD_GATEWAY;
+        for (int i = 0; i < 4; i++) {
+            call(guard).block();
+        }
+        Mockito.when(clock.millis()).thenReturn(1000L);
+
+        guard.execute(ROUTE, timeout -> pendingExchange.exchange(null, "/items/1", null, null, null)).subscribe();
+        guard.execute(ROUTE, timeout -> pendingExchange.exchange(null, "/items/2", null, null, null)).subscribe();
+
+        Assertions.assertThrows(ServerUnavailableException.class, () -> call(guard).block());
+        Assertions.assertEquals(2, pendingResponses.size());
+    }
+
+    @Test
+    void slowItemsDoNotStarveBookings() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit-gateway.items.bulkhead.max-concurrent", "2");
+        ServerCallGuards guards = new ServerCallGuards(environment, new SimpleMeterRegistry(), clock);
+        BaseClient items = new BaseClient("/items", pendingExchange, null, null, guards);
+        BaseClient bookings = new BaseClient("/bookings", pendingExchange, null, null, guards);
+
+        items.get("/search?text=pc", 1L).subscribe();
+        items.get("/search?text=tv", 1L).subscribe();
+
+        Assertions.assertThrows(ServerUnavailableException.class, () -> items.get("/1", 1L).block());
+        bookings.get("/1", 1L).subscribe();
+        Assertions.assertEquals(List.of("GET /items/search?text=pc", "GET /items/search?text=tv", "GET /bookings/1"),
+                upstreamCalls);
+
+        pendingResponses.get(0).tryEmitValue(ResponseEntity.ok().build());
+        items.get("/1", 1L).subscribe();
+        Assertions.assertEquals("GET /items/1", upstreamCalls.get(3));
+    }
+
+    @Test
+    void callExceedingAdaptiveTimeoutFailsAsGatewayTimeout() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        for (int i = 0; i < 20; i++) {
+            guard.timeout(ROUTE).record(5);
+        }
+
+        Assertions.assertEquals(50, guard.timeoutMs());
+        Assertions.assertThrows(ServerTimeoutException.class,
+                () -> guard.execute(ROUTE, t -> pendingExchange.exchange(null, "/items/1", null, null, null, t)).block());
+        // the permit is given back on the timer thread right after the error reaches the caller
+        long deadline = System.currentTimeMillis() + 1000;
+        while (guard.activeCalls() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        Assertions.assertEquals(0, guard.activeCalls());
+    }
+
+    @Test
+    void bulkCallGetsMaximumTimeoutAndIsNotSampled() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        for (int i = 0; i < 20; i++) {
+            guard.timeout(ROUTE).record(5);
+        }
+        List<Duration> timeouts = new ArrayList<>();
+
+        guard.execute("POST /import", t -> {
+            timeouts.add(t);
+            return exchange.exchange(null, "/items/import", null, null, null, t);
+        }, false).block();
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(1000)), timeouts);
+        Assertions.assertEquals(50, guard.timeout(ROUTE).currentMs());
+        // a sampled call of a few ms would have brought it down to the 50 ms floor
+        Assertions.assertEquals(1000, guard.timeout("POST /import").currentMs());
+    }
+
+    @Test
+    void writesGetMaximumTimeoutAndAreNotSampled() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("shareit-gateway.bookings.timeout.min-ms", "50")
+                .withProperty("shareit-server.read-timeout-ms", "1000");
+        ServerCallGuards guards = new ServerCallGuards(environment, new SimpleMeterRegistry(), clock);
+        List<String> timeouts = new ArrayList<>();
+        ShareItServerExchange timedExchange = new ShareItServerExchange() {
+            @Override
+            public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                         Map<String, Object> parameters, HttpHeaders headers,
+                                                         Object body) {
+                return Mono.just(ResponseEntity.ok().build());
+            }
+
+            @Override
+            public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                         Map<String, Object> parameters, HttpHeaders headers,
+                                                         Object body, Duration timeout) {
+                timeouts.add(method + " " + timeout.toMillis());
+                return exchange(method, path, parameters, headers, body);
+            }
+        };
+        BaseClient bookings = new BaseClient("/bookings", timedExchange, null, null, guards);
+        for (int i = 0; i < 20; i++) {
+            bookings.get("/1", 1L).block();
+        }
+        timeouts.clear();
+
+        bookings.post("", 1L, Map.of()).block();
+        bookings.patch("/1?approved=true", 1L).block();
+        bookings.delete("/1", 1L).block();
+        bookings.get("/1", 1L).block();
+
+        Assertions.assertEquals(List.of("POST 1000", "PATCH 1000", "DELETE 1000", "GET 50"), timeouts);
+    }
+
+    @Test
+    void adaptiveTimeoutFollowsLatency() {
+        AdaptiveTimeout timeout = new AdaptiveTimeout(50, 1000);
+        Assertions.assertEquals(1000, timeout.currentMs());
+
+        for (int i = 0; i < 50; i++) {
+            timeout.record(100);
+        }
+        long steady = timeout.currentMs();
+        for (int i = 0; i < 5; i++) {
+            timeout.record(400);
+        }
+
+        Assertions.assertTrue(steady >= 100 && steady < 200, "steady timeout " + steady);
+        Assertions.assertTrue(timeout.currentMs() > steady);
+    }
+
+    @Test
+    void timeoutBacksOffOnExpiryUntilNextResponse() {
+        AdaptiveTimeout timeout = new AdaptiveTimeout(50, 1000);
+        for (int i = 0; i < 20; i++) {
+            timeout.record(5);
+        }
+
+        List<Long> backedOff = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            timeout.expired();
+            backedOff.add(timeout.currentMs());
+        }
+        timeout.record(5);
+
+        Assertions.assertEquals(List.of(100L, 200L, 400L, 800L, 1000L, 1000L), backedOff);
+        Assertions.assertEquals(50, timeout.currentMs());
+    }
+
+    @Test
+    void slowerServerIsReachedAgainAfterExpiredCalls() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        for (int i = 0; i < 20; i++) {
+            guard.timeout(ROUTE).record(5);
+        }
+        List<Duration> timeouts = new ArrayList<>();
+        // the server now answers in 150 ms: above the settled 50 ms timeout
+        Function<Duration, Mono<ResponseEntity<Object>>> slowCall = t -> {
+            timeouts.add(t);
+            return t.toMillis() < 150
+                    ? Mono.error(new TimeoutException())
+                    : Mono.just(ResponseEntity.ok().build());
+        };
+
+        Assertions.assertThrows(ServerTimeoutException.class, () -> guard.execute(ROUTE, slowCall).block());
+        Assertions.assertThrows(ServerTimeoutException.class, () -> guard.execute(ROUTE, slowCall).block());
+        guard.execute(ROUTE, slowCall).block();
+
+        Assertions.assertEquals(List.of(Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(200)),
+                timeouts);
+    }
+
+    @Test
+    void routesKeepTheirOwnTimeouts() {
+        ServerCallGuard guard = guard(new Bulkhead(10));
+        for (int i = 0; i < 20; i++) {
+            guard.timeout(ROUTE).record(5);
+        }
+
+        Assertions.assertEquals(50, guard.timeout(ROUTE).currentMs());
+        Assertions.assertEquals(1000, guard.timeout("GET /search").currentMs());
+        Assertions.assertEquals("GET /{id}/comment", BaseClient.route(HttpMethod.GET, "/12/comment"));
+        Assertions.assertEquals("GET /owner/", BaseClient.route(HttpMethod.GET, "/owner/?state={state}&from=0"));
+    }
+
+    @Test
+    void guardsPublishStatePerClient() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServerCallGuards guards = new ServerCallGuards(new MockEnvironment(), registry, clock);
+
+        Assertions.assertSame(guards.guardFor("/items"), guards.guardFor("/items"));
+        guards.guardFor("/bookings");
+
+        Assertions.assertEquals(0, registry.get("shareit.gateway.circuit.state").tag("client", "items").gauge().value());
+        Assertions.assertEquals(0, registry.get("shareit.gateway.bulkhead.active").tag("client", "bookings").gauge().value());
+        Assertions.assertEquals(10000, registry.get("shareit.gateway.timeout.current").tag("client", "items").gauge().value());
+    }
+
+    private ServerCallGuard guard(Bulkhead bulkhead) {
+        return new ServerCallGuard("items", new CircuitBreaker(4, 4, 50, 1000, 2, clock), bulkhead, 50, 1000);
+    }
+
+    private Mono<ResponseEntity<Object>> call(ServerCallGuard guard) {
+        return guard.execute(ROUTE, timeout -> exchange.exchange(null, "/items/1", null, null, null, timeout));
+    }
+}
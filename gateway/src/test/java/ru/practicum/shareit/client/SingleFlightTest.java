@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class SingleFlightTest {
+
+    SingleFlight singleFlight;
+    List<String> upstreamCalls = new ArrayList<>();
+    List<Sinks.One<ResponseEntity<Object>>> pendingResponses = new ArrayList<>();
+    BaseClient client;
+
+    @BeforeEach
+    void init() {
+        singleFlight = new SingleFlight();
+        ShareItServerExchange exchange = (method, path, parameters, headers, body) -> Mono.defer(() -> {
+            upstreamCalls.add(method + " " + path + " " + parameters + " " + headers.getFirst("X-Sharer-User-Id"));
+            Sinks.One<ResponseEntity<Object>> response = Sinks.one();
+            pendingResponses.add(response);
+            return response.asMono();
+        });
+        client = new BaseClient("/items", exchange, null, singleFlight, null);
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        Map<String, Object> parameters = Map.of("text", "pc", "from", 0, "size", 10);
+        List<Object> answers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            client.get("/search?text={text}&from={from}&size={size}", 1L, parameters)
+                    .subscribe(response -> answers.add(response.getBody()));
+        }
+
+        Assertions.assertEquals(1, upstreamCalls.size());
+        pendingResponses.get(0).tryEmitValue(ResponseEntity.ok("[]"));
+
+        Assertions.assertEquals(List.of("[]", "[]", "[]"), answers);
+        Assertions.assertEquals(2, singleFlight.coalescedCount());
+        Assertions.assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void completedCallIsNotReused() {
+        client.get("/1", 1L).subscribe();
+        pendingResponses.get(0).tryEmitValue(ResponseEntity.ok("first"));
+
+        client.get("/1", 1L).subscribe();
+
+        Assertions.assertEquals(2, upstreamCalls.size());
+    }
+
+    @Test
+    void differentUsersOrParametersAreNotCoalesced() {
+        client.get("/1", 1L).subscribe();
+        client.get("/1", 2L).subscribe();
+        client.get("?from={from}", 1L, Map.of("from", 0)).subscribe();
+        client.get("?from={from}", 1L, Map.of("from", 10)).subscribe();
+
+        Assertions.assertEquals(4, upstreamCalls.size());
+    }
+
+    @Test
+    void errorIsSharedAndNextCallStartsAgain() {
+        List<Throwable> errors = new ArrayList<>();
+        client.get("/1", 1L).subscribe(response -> { }, errors::add);
+        client.get("/1", 1L).subscribe(response -> { }, errors::add);
+
+        pendingResponses.get(0).tryEmitError(new IllegalStateException("server is down"));
+        client.get("/1", 1L).subscribe(response -> { }, errors::add);
+
+        Assertions.assertEquals(2, errors.size());
+        Assertions.assertEquals(2, upstreamCalls.size());
+    }
+
+    @Test
+    void writesAreNeverCoalesced() {
+        client.post("", 1L, "item").subscribe();
+        client.post("", 1L, "item").subscribe();
+
+        Assertions.assertEquals(2, upstreamCalls.size());
+    }
+}
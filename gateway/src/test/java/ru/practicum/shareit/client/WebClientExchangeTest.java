@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+class WebClientExchangeTest {
+
+    AtomicReference<ClientRequest> sentRequest = new AtomicReference<>();
+
+    BaseClient clientRespondingWith(ClientResponse response) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://server:9090")
+                .exchangeFunction(request -> {
+                    sentRequest.set(request);
+                    return Mono.just(response);
+                })
+                .build();
+        return new BaseClient("/items", new WebClientExchange(webClient));
+    }
+
+    @Test
+    void successfulResponseIsForwardedAsServerBytes() {
+        String json = "[{\"id\":1,\"name\":\"PC\",\"description\":\"Gaming PC\"}]";
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Next-Cursor", "token")
+                .header("X-Internal", "secret")
+                .body(json)
+                .build());
+
+        ResponseEntity<Object> response = client.get("/search?text={text}", 1L, Map.of("text", "pc")).block();
+
+        Assertions.assertEquals(HttpMethod.GET, sentRequest.get().method());
+        Assertions.assertEquals("http://server:9090/items/search?text=pc", sentRequest.get().url().toString());
+        Assertions.assertEquals("1", sentRequest.get().headers().getFirst("X-Sharer-User-Id"));
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(json, new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        Assertions.assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        Assertions.assertEquals("token", response.getHeaders().getFirst("X-Next-Cursor"));
+        Assertions.assertFalse(response.getHeaders().containsKey("X-Internal"));
+    }
+
+    @Test
+    void errorResponseKeepsStatusAndBody() {
+        String json = "{\"error\":\"itemId: \\\"5\\\" не найден\"}";
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build());
+
+        ResponseEntity<Object> response = client.get("/5", 1L).block();
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        Assertions.assertEquals(json, new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void emptyResponseHasNoBody() {
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK).build());
+
+        ResponseEntity<Object> response = client.delete("/1").block();
+
+        Assertions.assertEquals(HttpMethod.DELETE, sentRequest.get().method());
+        Assertions.assertFalse(response.hasBody());
+    }
+}
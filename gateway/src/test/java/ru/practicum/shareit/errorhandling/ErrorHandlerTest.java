@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.booking.exceptions.InCorrectStatusException;
 import ru.practicum.shareit.booking.exceptions.IncorrectDateException;
+import ru.practicum.shareit.client.exceptions.ServerTimeoutException;
+import ru.practicum.shareit.client.exceptions.ServerUnavailableException;
 
 
 class ErrorHandlerTest {
@@ -58,4 +60,18 @@ class ErrorHandlerTest {
         Assertions.assertNotNull(expected);
         Assertions.assertEquals(expected.getMessage(), actual.getError());
     }*/
-}
\ No newline at end of file
+
+    @Test
+    void serverUnavailableHandler() {
+        var expected = new ServerUnavailableException("Circuit for items is open");
+        var actual = errorHandler.serverUnavailableHandler(expected);
+        Assertions.assertEquals(expected.getMessage(), actual.getError());
+    }
+
+    @Test
+    void serverTimeoutHandler() {
+        var expected = new ServerTimeoutException("No response from items within 200 ms");
+        var actual = errorHandler.serverTimeoutHandler(expected);
+        Assertions.assertEquals(expected.getMessage(), actual.getError());
+    }
+}
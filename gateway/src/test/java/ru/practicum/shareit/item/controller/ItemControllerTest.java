@@ -8,9 +8,11 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -21,6 +23,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -72,13 +76,13 @@ class ItemControllerTest {
 
         Mockito
                 .when(itemClient.createItem(firstUserDto.getId(), firstItemDtoBeforeSaving))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(post("/items")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/items")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(firstItemDtoBeforeSaving)))
+                        .content(objectMapper.writeValueAsString(firstItemDtoBeforeSaving))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("PC"));
@@ -104,13 +108,13 @@ class ItemControllerTest {
 
         Mockito
                 .when(itemClient.updateItem(firstUserDto.getId(), firstItemDto.getId(), update))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(patch("/items/{itemId}", firstItemDto.getId())
+        mockMvc.perform(asyncDispatch(mockMvc.perform(patch("/items/{itemId}", firstItemDto.getId())
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(update)))
+                        .content(objectMapper.writeValueAsString(update))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("not PC"));
@@ -124,12 +128,12 @@ class ItemControllerTest {
 
         Mockito
                 .when(itemClient.getAllItemsByOwner(1L, 0, 10))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/items")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .param("from", "0")
-                        .param("size", "10"))
+                        .param("size", "10")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
@@ -140,15 +144,34 @@ class ItemControllerTest {
         ResponseEntity<Object> responseEntity = ResponseEntity.ok(objectMapper.writeValueAsString(firstItemDto));
 
         Mockito
-                .when(itemClient.getItemById(1L, 1L))
-                .thenReturn(responseEntity);
+                .when(itemClient.getItemById(1L, 1L, null))
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/items/{itemsId}", firstItemDto.getId())
-                        .header("X-Sharer-User-Id", String.valueOf(1L)))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/items/{itemsId}", firstItemDto.getId())
+                        .header("X-Sharer-User-Id", String.valueOf(1L))).andReturn()))
                 .andExpect(status().isOk());
 
     }
 
+    @SneakyThrows
+    @Test
+    void getItemByIdWithMatchingETagIsNotModified() {
+        ResponseEntity<Object> responseEntity = ResponseEntity.ok()
+                .eTag("\"v1\"")
+                .body(objectMapper.writeValueAsString(firstItemDto));
+
+        Mockito
+                .when(itemClient.getItemById(1L, 1L, "\"v1\""))
+                .thenReturn(Mono.just(responseEntity));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/items/{itemsId}", firstItemDto.getId())
+                        .header("X-Sharer-User-Id", String.valueOf(1L))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")).andReturn()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(content().string(""));
+    }
+
     @SneakyThrows
     @Test
     void getItemByText() {
@@ -157,13 +180,13 @@ class ItemControllerTest {
 
         Mockito
                 .when(itemClient.searchItem(1L, "PC", 0, 10))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/items/search")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .param("text", "PC")
                         .param("from", "0")
-                        .param("size", "10"))
+                        .param("size", "10")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("PC"));
@@ -187,13 +210,13 @@ class ItemControllerTest {
 
         Mockito
                 .when(itemClient.postComment(1L, 1L, commentDto))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(post("/items/{itemId}/comment", 1L)
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/items/{itemId}/comment", 1L)
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(commentDto)))
+                        .content(objectMapper.writeValueAsString(commentDto))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.text").value("Все супер!!"));
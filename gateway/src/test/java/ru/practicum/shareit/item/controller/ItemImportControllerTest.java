@@ -0,0 +1,193 @@
+package ru.practicum.shareit.item.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.exceptions.ServerRejectedException;
+import ru.practicum.shareit.client.exceptions.ServerTimeoutException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemImporter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemImportController.class, properties = "shareit-gateway.item-import.chunk-size=2")
+@Import(ItemImporter.class)
+class ItemImportControllerTest {
+
+    @Autowired
+    ObjectMapper objectMapper;
+    @MockBean
+    ItemClient itemClient;
+    @Autowired
+    MockMvc mockMvc;
+    List<List<ItemDto>> chunks = new ArrayList<>();
+
+    @SneakyThrows
+    @Test
+    void ndjsonRecordsAreValidatedAndSentInChunks() {
+        Mockito
+                .when(itemClient.importItems(ArgumentMatchers.eq(1L), ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Mono.just(gzippedResults(invocation.getArgument(1))));
+        String records = String.join("\n",
+                "{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}",
+                "{\"name\":\"\",\"description\":\"No name\",\"available\":true}",
+                "{\"name\":\"Ladder\",\"description\":\"Folding\",\"available\":true}",
+                "{\"name\":\"Broken\",\"description\":\"Rejected by the server\",\"available\":true}",
+                "{\"id\":7,\"name\":\"Tent\",\"description\":\"With an id\"}",
+                "{\"name\":\"Camera\",\"description\":\"Mirrorless\",\"available\":false}");
+
+        String response = mockMvc.perform(post("/items/import")
+                        .contentType("application/x-ndjson")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(records))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        Assertions.assertEquals(6, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assertions.assertEquals(i, results.get(i).get("index").asInt());
+        }
+        Assertions.assertEquals(100, results.get(0).get("id").asLong());
+        Assertions.assertTrue(results.get(1).get("error").asText().startsWith("name "));
+        Assertions.assertEquals(100, results.get(2).get("id").asLong());
+        Assertions.assertEquals("Broken is not allowed", results.get(3).get("error").asText());
+        Assertions.assertTrue(results.get(4).get("error").asText().matches("available .+, id .+"));
+        Assertions.assertEquals(100, results.get(5).get("id").asLong());
+        Assertions.assertEquals(List.of(List.of("Drill"), List.of("Ladder", "Broken"), List.of("Camera")),
+                chunkNames());
+    }
+
+    @SneakyThrows
+    @Test
+    void serverErrorFailsEveryRecordOfTheChunk() {
+        Mockito
+                .when(itemClient.importItems(ArgumentMatchers.eq(42L), ArgumentMatchers.anyList()))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("{\"error\":\"userId: \\\"42\\\" not found\"}".getBytes(StandardCharsets.UTF_8))));
+        List<ItemDto> items = List.of(
+                ItemDto.builder().name("Drill").description("Cordless").available(true).build(),
+                ItemDto.builder().name("Camera").description("Mirrorless").available(true).build());
+
+        mockMvc.perform(post("/items/import")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", 42L)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].error").value("userId: \"42\" not found"))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("userId: \"42\" not found"));
+    }
+
+    @SneakyThrows
+    @Test
+    void chunkWithoutAnswerHasUnknownOutcome() {
+        Mockito
+                .when(itemClient.importItems(ArgumentMatchers.eq(1L), ArgumentMatchers.anyList()))
+                .thenReturn(Mono.error(new ServerTimeoutException("No response from items within 10000 ms")));
+
+        mockMvc.perform(post("/items/import")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").value("No response from items within 10000 ms"))
+                .andExpect(jsonPath("$[0].outcomeUnknown").value(true));
+    }
+
+    @SneakyThrows
+    @Test
+    void chunkRejectedByGatewayFails() {
+        Mockito
+                .when(itemClient.importItems(ArgumentMatchers.eq(1L), ArgumentMatchers.anyList()))
+                .thenReturn(Mono.error(new ServerRejectedException("Circuit for items is open")));
+
+        mockMvc.perform(post("/items/import")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].error").value("Circuit for items is open"))
+                .andExpect(jsonPath("$[0].outcomeUnknown").doesNotExist());
+    }
+
+    @SneakyThrows
+    @Test
+    void malformedRecordEndsTheImport() {
+        Mockito
+                .when(itemClient.importItems(ArgumentMatchers.eq(1L), ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Mono.just(gzippedResults(invocation.getArgument(1))));
+
+        mockMvc.perform(post("/items/import")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}, {\"name\":]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(100))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").exists());
+        Assertions.assertEquals(List.of(List.of("Drill")), chunkNames());
+    }
+
+    /**
+     * Answers like the server: a JSON array numbered within the chunk, gzip compressed.
+     */
+    @SneakyThrows
+    private ResponseEntity<Object> gzippedResults(List<ItemDto> chunk) {
+        chunks.add(chunk);
+        List<ItemImportResult> results = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add("Broken".equals(chunk.get(i).getName())
+                    ? ItemImportResult.builder().index(i).error("Broken is not allowed").build()
+                    : ItemImportResult.builder().index(i).id(100L).build());
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+            gzip.write(objectMapper.writeValueAsBytes(results));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(body.toByteArray());
+    }
+
+    private List<List<String>> chunkNames() {
+        List<List<String>> names = new ArrayList<>();
+        for (List<ItemDto> chunk : chunks) {
+            List<String> chunkNames = new ArrayList<>();
+            chunk.forEach(item -> chunkNames.add(item.getName()));
+            names.add(chunkNames);
+        }
+        return names;
+    }
+}
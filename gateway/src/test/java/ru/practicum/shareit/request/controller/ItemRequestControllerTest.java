@@ -11,6 +11,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.RequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -20,6 +21,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -78,13 +80,13 @@ class ItemRequestControllerTest {
 
         Mockito
                 .when(requestClient.createRequest(firstUserDto.getId(), itemRequestDto))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(post("/requests")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/requests")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(itemRequestDto)))
+                        .content(objectMapper.writeValueAsString(itemRequestDto))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.description").value("Хочу PC"));
@@ -104,10 +106,10 @@ class ItemRequestControllerTest {
 
         Mockito
                 .when(requestClient.getRequestsByRequestor(firstUserDto.getId()))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/requests")
-                        .header("X-Sharer-User-Id", String.valueOf(1L)))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/requests")
+                        .header("X-Sharer-User-Id", String.valueOf(1L))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.description").value("Хочу PC"));
@@ -126,11 +128,11 @@ class ItemRequestControllerTest {
                 itemRequestDtoAfterSave));
 
         Mockito
-                .when(requestClient.getRequestByRequestId(firstUserDto.getId(), itemRequestDtoAfterSave.getId()))
-                .thenReturn(responseEntity);
+                .when(requestClient.getRequestByRequestId(firstUserDto.getId(), itemRequestDtoAfterSave.getId(), null))
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/requests/{requestId}", itemRequestDtoAfterSave.getId())
-                        .header("X-Sharer-User-Id", String.valueOf(1L)))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/requests/{requestId}", itemRequestDtoAfterSave.getId())
+                        .header("X-Sharer-User-Id", String.valueOf(1L))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.description").value("Хочу PC"));
@@ -150,12 +152,12 @@ class ItemRequestControllerTest {
 
         Mockito
                 .when(requestClient.getRequestsWithPagination(1L, 0, 10))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/requests/all")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", String.valueOf(1L))
                         .param("from", "0")
-                        .param("size", "10"))
+                        .param("size", "10")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
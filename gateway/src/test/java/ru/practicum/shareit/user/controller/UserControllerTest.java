@@ -8,16 +8,23 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -58,14 +65,75 @@ class UserControllerTest {
 
         Mockito
                 .when(userClient.getAllUsers())
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users")).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value(firstUserDto.getName()));
     }
 
+    @SneakyThrows
+    @Test
+    void getUsersForwardsServerBytes() {
+        byte[] serverBody = objectMapper.writeValueAsBytes(List.of(firstUserDto));
+
+        Mockito
+                .when(userClient.getAllUsers())
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(serverBody)));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(serverBody));
+    }
+
+    @SneakyThrows
+    @Test
+    void gzipServerBodyIsPassedThroughToGzipClient() {
+        byte[] gzipped = gzip(objectMapper.writeValueAsBytes(List.of(firstUserDto)));
+        stubGzippedUsers(gzipped);
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().bytes(gzipped));
+    }
+
+    @SneakyThrows
+    @Test
+    void gzipServerBodyIsDecompressedForPlainClient() {
+        byte[] serverBody = objectMapper.writeValueAsBytes(List.of(firstUserDto));
+        stubGzippedUsers(gzip(serverBody));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity")).andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(serverBody));
+    }
+
+    private void stubGzippedUsers(byte[] gzipped) {
+        Mockito
+                .when(userClient.getAllUsers())
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .body(gzipped)));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(body);
+        }
+        return gzipped.toByteArray();
+    }
+
     @SneakyThrows
     @Test
     void createUser() {
@@ -79,12 +147,12 @@ class UserControllerTest {
 
         Mockito
                 .when(userClient.createUser(userDtoBeforeSave))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(post("/users")
+        mockMvc.perform(asyncDispatch(mockMvc.perform(post("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(userDtoBeforeSave)))
+                        .content(objectMapper.writeValueAsString(userDtoBeforeSave))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value(firstUserDto.getName()));
@@ -108,12 +176,12 @@ class UserControllerTest {
 
         Mockito
                 .when(userClient.updateUser(1L, update))
-                .thenReturn(responseEntity);
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(patch("/users/{userId}", 1L)
+        mockMvc.perform(asyncDispatch(mockMvc.perform(patch("/users/{userId}", 1L)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(update)))
+                        .content(objectMapper.writeValueAsString(update))).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Рома"));
@@ -126,10 +194,10 @@ class UserControllerTest {
                 firstUserDto));
 
         Mockito
-                .when(userClient.getUser(1L))
-                .thenReturn(responseEntity);
+                .when(userClient.getUser(1L, null))
+                .thenReturn(Mono.just(responseEntity));
 
-        mockMvc.perform(get("/users/{userId}", 1L))
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/users/{userId}", 1L)).andReturn()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value(firstUserDto.getName()));
@@ -138,7 +206,11 @@ class UserControllerTest {
     @SneakyThrows
     @Test
     void deleteUserById() {
-        mockMvc.perform(delete("/users/{userId}", 1L))
+        Mockito
+                .when(userClient.deleteUser(1L))
+                .thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        mockMvc.perform(asyncDispatch(mockMvc.perform(delete("/users/{userId}", 1L)).andReturn()))
                 .andExpect(status().isOk());
     }
 }
\ No newline at end of file
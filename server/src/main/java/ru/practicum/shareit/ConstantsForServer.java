@@ -2,6 +2,7 @@ package ru.practicum.shareit;
 
 public final class ConstantsForServer {
     public static final String userIdHeader = "X-Sharer-User-Id";
+    public static final String nextCursorHeader = "X-Next-Cursor";
 
     private ConstantsForServer() {
     }
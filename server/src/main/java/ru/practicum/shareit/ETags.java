@@ -0,0 +1,29 @@
+package ru.practicum.shareit;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Content-hash validators for read endpoints. The hash is taken over the DTO's {@code toString()} (all DTOs are
+ * lombok {@code @Data}, so it covers every field including nested comments and bookings) instead of over the JSON,
+ * so a matching {@code If-None-Match} is answered with 304 by Spring's {@code HttpEntityMethodProcessor}
+ * before the body is ever handed to Jackson. The validators are weak: the same content may be sent gzip compressed
+ * or not, and Tomcat refuses to compress a response that carries a strong ETag.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static <T> ResponseEntity<T> ok(T body) {
+        return ResponseEntity.ok()
+                .eTag(of(body))
+                .body(body);
+    }
+
+    public static String of(Object body) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(String.valueOf(body).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
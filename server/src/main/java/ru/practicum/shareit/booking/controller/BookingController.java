@@ -2,12 +2,18 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.ETags;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.Collection;
+import java.util.List;
 
+import static ru.practicum.shareit.ConstantsForServer.nextCursorHeader;
 import static ru.practicum.shareit.ConstantsForServer.userIdHeader;
 
 @RestController
@@ -32,28 +38,56 @@ public class BookingController {
         return bookingService.acceptOrDeclineBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public List<BookingDecisionResult> approveOrCancelBookings(@RequestHeader(userIdHeader) long userId,
+                                                               @RequestParam boolean approved,
+                                                               @RequestBody List<Long> bookingIds) {
+        log.info("Вызван метод подтверждения или отмены нескольких бронирований, в BookingController");
+        return bookingService.acceptOrDeclineBookings(userId, bookingIds, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public BookingDto getBookingForOwnerOrBooker(@RequestHeader(userIdHeader) long userId,
-                                                 @PathVariable long bookingId) {
+    public ResponseEntity<BookingDto> getBookingForOwnerOrBooker(@RequestHeader(userIdHeader) long userId,
+                                                                 @PathVariable long bookingId) {
         log.info("Вызван метод просмотра бронирования владельцем или клиентом, в BookingController");
-        return bookingService.getBookingForOwnerOrBooker(userId, bookingId);
+        return ETags.ok(bookingService.getBookingForOwnerOrBooker(userId, bookingId));
     }
 
     @GetMapping
-    public Collection<BookingDto> getAllBookingsForBooker(@RequestHeader(userIdHeader) long userId,
-                                                          @RequestParam(defaultValue = "ALL") String state,
-                                                          @RequestParam(required = false) Integer from,
-                                                          @RequestParam(required = false) Integer size) {
+    public ResponseEntity<Collection<BookingDto>> getAllBookingsForBooker(@RequestHeader(userIdHeader) long userId,
+                                                                          @RequestParam(defaultValue = "ALL")
+                                                                          String state,
+                                                                          @RequestParam(required = false) Integer from,
+                                                                          @RequestParam(required = false) Integer size,
+                                                                          @RequestParam(required = false)
+                                                                          String cursor) {
         log.info("Вызван метод просмотра списка бронирования для клиента, в BookingController");
-        return bookingService.getAllBookingsForUser(userId, state, false, from, size);
+        return getBookingsPage(userId, state, false, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getAllBookingForOwner(@RequestHeader(userIdHeader) long userId,
-                                                        @RequestParam(defaultValue = "ALL") String state,
-                                                        @RequestParam(required = false) Integer from,
-                                                        @RequestParam(required = false) Integer size) {
+    public ResponseEntity<Collection<BookingDto>> getAllBookingForOwner(@RequestHeader(userIdHeader) long userId,
+                                                                        @RequestParam(defaultValue = "ALL")
+                                                                        String state,
+                                                                        @RequestParam(required = false) Integer from,
+                                                                        @RequestParam(required = false) Integer size,
+                                                                        @RequestParam(required = false)
+                                                                        String cursor) {
         log.info("Вызван метод просмотра списка бронирования для владельца, в BookingController");
-        return bookingService.getAllBookingsForUser(userId, state, true, from, size);
+        return getBookingsPage(userId, state, true, from, size, cursor);
+    }
+
+    private ResponseEntity<Collection<BookingDto>> getBookingsPage(long userId, String state, boolean isOwner,
+                                                                   Integer from, Integer size, String cursor) {
+        Collection<BookingDto> bookings = cursor == null
+                ? bookingService.getAllBookingsForUser(userId, state, isOwner, from, size)
+                : bookingService.getAllBookingsForUserAfterCursor(userId, state, isOwner, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(ETags.of(bookings));
+        if (size != null && bookings.size() == size) {
+            bookings.stream()
+                    .reduce((previous, next) -> next)
+                    .ifPresent(last -> response.header(nextCursorHeader, BookingCursor.of(last).encode()));
+        }
+        return response.body(bookings);
     }
 }
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.exceptions.InCorrectBookingException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+@Value
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime start;
+    long id;
+
+    /**
+     * Builds the cursor from the start as the database stores it, so that it always equals its own row.
+     */
+    public static BookingCursor of(BookingDto bookingDto) {
+        return new BookingCursor(toDatabasePrecision(bookingDto.getStart()), bookingDto.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+            return new BookingCursor(toDatabasePrecision(LocalDateTime.parse(decoded.substring(0, separatorIndex))),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InCorrectBookingException("Передан некорректный курсор пагинации");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rounds to microseconds the way H2 and Postgres store timestamps.
+     */
+    private static LocalDateTime toDatabasePrecision(LocalDateTime time) {
+        return time.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
+}
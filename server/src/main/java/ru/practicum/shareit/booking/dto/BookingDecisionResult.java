@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one booking of a bulk approve or reject: the updated booking or the reason it was left unchanged.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingDecisionResult {
+    private long bookingId;
+    private BookingDto booking;
+    private String error;
+}
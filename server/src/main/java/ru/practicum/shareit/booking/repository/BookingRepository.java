@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -8,83 +10,241 @@ import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public Optional<Booking> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> findAllByIdIn(Collection<Long> ids);
+
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.booker as bb " +
-            "WHERE bb.id = ?1 AND (b.start <= ?2 AND b.end >= ?2) " +
-            "ORDER BY b.start ASC")
+            "WHERE b.booker.id = ?1 AND (b.start <= ?2 AND b.end >= ?2) " +
+            "ORDER BY b.start ASC, b.id ASC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllCurrentBookingsByBookerId(long bookerId, LocalDateTime rightMoment, Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.item as i " +
-            "JOIN i.owner as o " +
-            "WHERE o.id = ?1 AND (b.start <= ?2 AND b.end >= ?2) " +
-            "ORDER BY b.start ASC")
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND (b.start <= ?2 AND b.end >= ?2) " +
+            "ORDER BY b.start ASC, b.id ASC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllCurrentBookingsByOwnerId(long ownerId, LocalDateTime rightMoment, Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.booker as bb " +
-            "WHERE bb.id = ?1 AND (b.end > ?2)  " +
-            "ORDER BY b.start DESC")
+            "WHERE b.booker.id = ?1 AND (b.end > ?2)  " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllFutureBookingsByBookerId(long bookerId, LocalDateTime rightMoment, Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.item as i " +
-            "JOIN i.owner as o " +
-            "WHERE o.id = ?1 AND (b.end > ?2) " +
-            "ORDER BY b.start DESC")
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND (b.end > ?2) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllFutureBookingsByOwnerId(long ownerId, LocalDateTime rightMoment, Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.booker as bb " +
-            "WHERE bb.id = ?1 AND (b.end < ?2) " +
-            "ORDER BY b.start DESC")
+            "WHERE b.booker.id = ?1 AND (b.end < ?2) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllPastBookingsByBookerId(long bookerId, LocalDateTime rightMoment, Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.item as i " +
-            "JOIN i.owner as o " +
-            "WHERE o.id = ?1 AND (b.end < ?2) " +
-            "ORDER BY b.start DESC")
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND (b.end < ?2) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllPastBookingsByOwnerId(long ownerId, LocalDateTime rightMoment, Pageable pageable);
 
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.booker.id = ?1 AND b.state = ?2 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllByBookerIdAndStateOrderByStartDesc(long bookerId, BookingState state,
                                                                   Pageable pageable);
 
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND b.state = ?2 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getAllByItemOwnerIdAndStateOrderByStartDesc(long ownerId, BookingState state,
                                                                      Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.item as i " +
-            "JOIN i.owner as o " +
-            "WHERE o.id = ?1 " +
-            "ORDER BY b.start DESC")
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getBookingListByOwnerId(long ownerId, Pageable pageable);
 
     @Query("SELECT b " +
             "FROM Booking as b " +
-            "JOIN b.booker as bb " +
-            "WHERE bb.id = ?1 " +
-            "ORDER BY b.start DESC")
+            "WHERE b.booker.id = ?1 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
     public List<Booking> getBookingListByBookerId(long bookerId, Pageable pageable);
 
 
-    public Booking findFirstBookingByItemIdAndStartIsBeforeAndStateNotLikeOrderByStartDesc(
-            long itemId, LocalDateTime dateTime, BookingState state);
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.booker.id = ?1 AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekBookingListByBookerId(long bookerId, LocalDateTime start, long id, Pageable pageable);
 
-    public Booking findFirstBookingByItemIdAndEndIsBeforeAndStateNotLikeOrderByEndDesc(
-            long itemId, LocalDateTime dateTime, BookingState state);
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekBookingListByOwnerId(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.booker.id = ?1 AND (b.start <= ?4 AND b.end >= ?4) " +
+            "AND (b.start > ?2 OR (b.start = ?2 AND b.id > ?3)) " +
+            "ORDER BY b.start ASC, b.id ASC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekCurrentBookingsByBookerId(long bookerId, LocalDateTime start, long id,
+                                                       LocalDateTime rightMoment, Pageable pageable);
 
-    public Booking findFirstBookingByItemIdAndStartIsAfterAndStateNotLikeOrderByStartAsc(
-            long itemId, LocalDateTime dateTime, BookingState state);
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND (b.start <= ?4 AND b.end >= ?4) " +
+            "AND (b.start > ?2 OR (b.start = ?2 AND b.id > ?3)) " +
+            "ORDER BY b.start ASC, b.id ASC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekCurrentBookingsByOwnerId(long ownerId, LocalDateTime start, long id,
+                                                      LocalDateTime rightMoment, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.booker.id = ?1 AND (b.end > ?4) " +
+            "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekFutureBookingsByBookerId(long bookerId, LocalDateTime start, long id,
+                                                      LocalDateTime rightMoment, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND (b.end > ?4) " +
+            "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekFutureBookingsByOwnerId(long ownerId, LocalDateTime start, long id,
+                                                     LocalDateTime rightMoment, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.booker.id = ?1 AND (b.end < ?4) " +
+            "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekPastBookingsByBookerId(long bookerId, LocalDateTime start, long id,
+                                                    LocalDateTime rightMoment, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND (b.end < ?4) " +
+            "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekPastBookingsByOwnerId(long ownerId, LocalDateTime start, long id,
+                                                   LocalDateTime rightMoment, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.booker.id = ?1 AND b.state = ?4 " +
+            "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekBookingsByBookerIdAndState(long bookerId, LocalDateTime start, long id,
+                                                        BookingState state, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN (SELECT i.id FROM Item as i WHERE i.owner.id = ?1) " +
+            "AND b.state = ?4 " +
+            "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    @EntityGraph(attributePaths = {"item", "booker"})
+    public List<Booking> seekBookingsByOwnerIdAndState(long ownerId, LocalDateTime start, long id,
+                                                       BookingState state, Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id = ?1 AND b.state IN ?2")
+    public List<Booking> findAllByItemIdAndStateIn(long itemId, Collection<BookingState> states);
+
+    public default Booking findFirstBookingByItemIdAndStartIsBeforeAndStateNotLikeOrderByStartDesc(
+            long itemId, LocalDateTime dateTime, BookingState state) {
+        return findStartedBefore(itemId, dateTime, state, PageRequest.of(0, 1)).stream().findFirst().orElse(null);
+    }
+
+    public default Booking findFirstBookingByItemIdAndEndIsBeforeAndStateNotLikeOrderByEndDesc(
+            long itemId, LocalDateTime dateTime, BookingState state) {
+        return findEndedBefore(itemId, dateTime, state, PageRequest.of(0, 1)).stream().findFirst().orElse(null);
+    }
+
+    public default Booking findFirstBookingByItemIdAndStartIsAfterAndStateNotLikeOrderByStartAsc(
+            long itemId, LocalDateTime dateTime, BookingState state) {
+        return findStartingAfter(itemId, dateTime, state, PageRequest.of(0, 1)).stream().findFirst().orElse(null);
+    }
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id = ?1 AND b.start < ?2 AND b.state <> ?3 " +
+            "ORDER BY b.start DESC, b.id DESC")
+    public List<Booking> findStartedBefore(long itemId, LocalDateTime dateTime, BookingState state,
+                                           Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id = ?1 AND b.end < ?2 AND b.state <> ?3 " +
+            "ORDER BY b.end DESC")
+    public List<Booking> findEndedBefore(long itemId, LocalDateTime dateTime, BookingState state,
+                                         Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id = ?1 AND b.start > ?2 AND b.state <> ?3 " +
+            "ORDER BY b.start ASC")
+    public List<Booking> findStartingAfter(long itemId, LocalDateTime dateTime, BookingState state,
+                                           Pageable pageable);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN ?1 AND b.state <> ?3 AND b.start = (" +
+            "SELECT MAX(lb.start) FROM Booking as lb " +
+            "WHERE lb.item.id = b.item.id AND lb.start < ?2 AND lb.state <> ?3)")
+    public List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime dateTime,
+                                                   BookingState state);
+
+    @Query("SELECT b " +
+            "FROM Booking as b " +
+            "WHERE b.item.id IN ?1 AND b.state <> ?3 AND b.start = (" +
+            "SELECT MIN(nb.start) FROM Booking as nb " +
+            "WHERE nb.item.id = b.item.id AND nb.start > ?2 AND nb.state <> ?3)")
+    public List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime dateTime,
+                                                   BookingState state);
 }
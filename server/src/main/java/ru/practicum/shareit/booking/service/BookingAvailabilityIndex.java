@@ -0,0 +1,187 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * In-memory index of occupied booking slots per item.
+ * Slots are sorted by start. Bookings stored before the overlap check may overlap each other, so a conflict is
+ * searched among all slots starting before the requested end, and the search goes back no further than the
+ * longest slot of the item: anything starting earlier has ended before the requested start.
+ * The slots of an item are loaded from the repository on first access and read and changed only under the item's
+ * {@link ItemLockStripes} lock. Items not accessed for {@code shareit.booking.availability-ttl} are dropped and
+ * loaded again on the next access.
+ */
+@Component
+@Slf4j
+public class BookingAvailabilityIndex {
+    static final List<BookingState> OCCUPYING_STATES = List.of(BookingState.WAITING, BookingState.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemLockStripes itemLockStripes;
+    private final long ttlMs;
+    private final Clock clock;
+    private final Map<Long, ItemSlots> slotsByItemId = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    @Autowired
+    public BookingAvailabilityIndex(BookingRepository bookingRepository, ItemLockStripes itemLockStripes,
+                                    @Value("${shareit.booking.availability-ttl:10m}") Duration ttl) {
+        this(bookingRepository, itemLockStripes, ttl, Clock.systemUTC());
+    }
+
+    BookingAvailabilityIndex(BookingRepository bookingRepository, ItemLockStripes itemLockStripes, Duration ttl,
+                             Clock clock) {
+        this.bookingRepository = bookingRepository;
+        this.itemLockStripes = itemLockStripes;
+        this.ttlMs = ttl.toMillis();
+        this.clock = clock;
+        lastSweep.set(clock.millis());
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        Lock itemLock = itemLockStripes.forItem(itemId);
+        itemLock.lock();
+        try {
+            return slotsOf(itemId).isFree(start, end);
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    public void add(Booking booking) {
+        Lock itemLock = itemLockStripes.forItem(booking.getItem().getId());
+        itemLock.lock();
+        try {
+            slotsOf(booking.getItem().getId()).add(Slot.of(booking));
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a load of the item in progress, so that a booking rejected while its slots were read is removed
+     * from what that load installs. Without loaded slots there is nothing to do: the next load reads the change.
+     */
+    public void remove(Booking booking) {
+        Lock itemLock = itemLockStripes.forItem(booking.getItem().getId());
+        itemLock.lock();
+        try {
+            ItemSlots itemSlots = slotsByItemId.get(booking.getItem().getId());
+            if (itemSlots != null) {
+                // matched by id: a booking read back from the database may carry a less precise start
+                itemSlots.slots.removeIf(slot -> slot.getBookingId() == booking.getId());
+            }
+        } finally {
+            itemLock.unlock();
+        }
+    }
+
+    int size() {
+        return slotsByItemId.size();
+    }
+
+    /**
+     * Called under the item's lock, which keeps the query out of the map's own locks.
+     */
+    private ItemSlots slotsOf(long itemId) {
+        long now = clock.millis();
+        ItemSlots itemSlots = slotsByItemId.get(itemId);
+        if (itemSlots == null) {
+            sweepIfDue(now);
+            itemSlots = load(itemId);
+            slotsByItemId.put(itemId, itemSlots);
+        }
+        itemSlots.lastAccess = now;
+        return itemSlots;
+    }
+
+    private ItemSlots load(long itemId) {
+        ItemSlots itemSlots = new ItemSlots();
+        bookingRepository.findAllByItemIdAndStateIn(itemId, OCCUPYING_STATES)
+                .forEach(booking -> itemSlots.add(Slot.of(booking)));
+        log.debug("Loaded {} booking slots for item {}", itemSlots.slots.size(), itemId);
+        return itemSlots;
+    }
+
+    /**
+     * At most once per TTL, by the thread loading an item. An item whose lock is busy is in use and stays.
+     */
+    private void sweepIfDue(long now) {
+        long previous = lastSweep.get();
+        if (now - previous < ttlMs || !lastSweep.compareAndSet(previous, now)) {
+            return;
+        }
+        slotsByItemId.forEach((itemId, itemSlots) -> {
+            if (now - itemSlots.lastAccess < ttlMs) {
+                return;
+            }
+            Lock itemLock = itemLockStripes.forItem(itemId);
+            if (itemLock.tryLock()) {
+                try {
+                    if (now - itemSlots.lastAccess >= ttlMs) {
+                        slotsByItemId.remove(itemId, itemSlots);
+                    }
+                } finally {
+                    itemLock.unlock();
+                }
+            }
+        });
+    }
+
+    private static class ItemSlots {
+        final NavigableSet<Slot> slots = new TreeSet<>(Slot.ORDER);
+        Duration longest = Duration.ZERO;
+        volatile long lastAccess;
+
+        void add(Slot slot) {
+            slots.add(slot);
+            Duration length = Duration.between(slot.getStart(), slot.getEnd());
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        boolean isFree(LocalDateTime start, LocalDateTime end) {
+            Slot from = new Slot(Long.MIN_VALUE, start.minus(longest), start);
+            Slot to = new Slot(Long.MIN_VALUE, end, end);
+            for (Slot slot : slots.subSet(from, true, to, false)) {
+                if (slot.getEnd().isAfter(start)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @lombok.Value
+    private static class Slot {
+        static final Comparator<Slot> ORDER = Comparator.comparing(Slot::getStart)
+                .thenComparingLong(Slot::getBookingId);
+
+        long bookingId;
+        LocalDateTime start;
+        LocalDateTime end;
+
+        static Slot of(Booking booking) {
+            return new Slot(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
     public BookingDto createBooking(long userId, BookingDto bookingDto);
 
     public BookingDto acceptOrDeclineBooking(long userId, long bookingId, boolean approved);
 
+    public List<BookingDecisionResult> acceptOrDeclineBookings(long userId, List<Long> bookingIds, boolean approved);
+
     public BookingDto getBookingForOwnerOrBooker(long userId, long bookingId);
 
     public Collection<BookingDto> getAllBookingsForUser(long userId, String state, boolean isOwner, Integer from,
                                                         Integer size);
+
+    public List<BookingDto> getAllBookingsForUserAfterCursor(long userId, String state, boolean isOwner, String cursor,
+                                                             Integer size);
 }
@@ -5,10 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AfterTransaction;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
 import ru.practicum.shareit.booking.exceptions.InCorrectBookingException;
 import ru.practicum.shareit.booking.exceptions.InCorrectStatusException;
 import ru.practicum.shareit.booking.model.Booking;
@@ -20,22 +25,39 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ItemLockStripes itemLockStripes;
 
+    /**
+     * The booking enters the availability index before the item lock is released, that is before commit, so a
+     * concurrent request for the same period is refused; if the transaction then rolls back it is taken out again.
+     */
     @Override
+    @Transactional
     public BookingDto createBooking(long userId, BookingDto bookingDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserIdNotFoundException("Такого пользователя не существует"));
@@ -51,14 +73,28 @@ public class BookingServiceImpl implements BookingService {
             throw new ItemIdNotFoundException("Нельзя забронировать свой же предмет");
         }
         booking.setState(BookingState.WAITING);
-        return BookingMapper.mapToBookingDto(bookingRepository.save(booking));
+        Lock itemLock = itemLockStripes.forItem(item.getId());
+        itemLock.lock();
+        try {
+            if (!availabilityIndex.isFree(item.getId(), booking.getStart(), booking.getEnd())) {
+                log.debug("Requested period overlaps another booking. In createBooking method");
+                throw new BookingOverlapException("Предмет уже забронирован на выбранный период");
+            }
+            Booking savedBooking = bookingRepository.save(booking);
+            availabilityIndex.add(savedBooking);
+            AfterTransaction.rollback(() -> availabilityIndex.remove(savedBooking));
+            return BookingMapper.mapToBookingDto(savedBooking);
+        } finally {
+            itemLock.unlock();
+        }
     }
 
     @Override
+    @Transactional
     public BookingDto acceptOrDeclineBooking(long userId, long bookingId, boolean approved) {
         Booking bookingOptional = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Такого бронирования не существует"));
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             log.debug("This user not found. In acceptOrDeclineBooking method");
             throw new UserIdNotFoundException("Такого пользователя не существует");
         }
@@ -66,6 +102,10 @@ public class BookingServiceImpl implements BookingService {
             log.debug("Double available in acceptOrDeclineBooking method");
             throw new InCorrectBookingException("Невозможно подтвердить подтвержденное бронирование");
         }
+        if (approved && bookingOptional.getState() == BookingState.REJECTED) {
+            log.debug("Approve of rejected booking in acceptOrDeclineBooking method");
+            throw new InCorrectBookingException("Невозможно подтвердить отклоненное бронирование");
+        }
         if (bookingOptional.getItem().getOwner().getId() != userId) {
             log.debug("Incorrect owner or double available in acceptOrDeclineBooking method");
             throw new BookingNotFoundException("Только владелец вещи может подтверждать бронирование.");
@@ -75,13 +115,79 @@ public class BookingServiceImpl implements BookingService {
         } else {
             bookingOptional.setState(BookingState.REJECTED);
         }
-        return BookingMapper.mapToBookingDto(bookingRepository.save(bookingOptional));
+        Booking savedBooking = bookingRepository.save(bookingOptional);
+        if (!approved) {
+            AfterTransaction.commit(() -> availabilityIndex.remove(savedBooking));
+        }
+        return BookingMapper.mapToBookingDto(savedBooking);
+    }
+
+    /**
+     * All bookings are read with one query and checked in memory; the accepted ones are updated in the method's
+     * transaction, so their UPDATE statements go out as one JDBC batch. A booking that fails a check is reported
+     * and left unchanged without affecting the others. Results follow the order of the given ids, duplicates
+     * collapsed.
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResult> acceptOrDeclineBookings(long userId, List<Long> bookingIds, boolean approved) {
+        if (!userExistenceCache.exists(userId)) {
+            log.debug("This user not found. In acceptOrDeclineBookings method");
+            throw new UserIdNotFoundException("Такого пользователя не существует");
+        }
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> decided = new ArrayList<>();
+        List<BookingDecisionResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            String error = decisionError(userId, booking, approved);
+            if (error != null) {
+                results.add(BookingDecisionResult.builder()
+                        .bookingId(id)
+                        .error(error)
+                        .build());
+                continue;
+            }
+            booking.setState(approved ? BookingState.APPROVED : BookingState.REJECTED);
+            decided.add(booking);
+            results.add(BookingDecisionResult.builder()
+                    .bookingId(id)
+                    .booking(BookingMapper.mapToBookingDto(booking))
+                    .build());
+        }
+        bookingRepository.saveAll(decided);
+        if (!approved) {
+            AfterTransaction.commit(() -> decided.forEach(availabilityIndex::remove));
+        }
+        log.debug("Owner {} decided {} of {} bookings", userId, decided.size(), ids.size());
+        return results;
+    }
+
+    private static String decisionError(long userId, Booking booking, boolean approved) {
+        if (booking == null) {
+            return "Такого бронирования не существует";
+        }
+        if (booking.getItem().getOwner().getId() != userId) {
+            return "Только владелец вещи может подтверждать бронирование.";
+        }
+        if (booking.getState() == BookingState.APPROVED) {
+            return "Невозможно подтвердить подтвержденное бронирование";
+        }
+        if (approved && booking.getState() == BookingState.REJECTED) {
+            return "Невозможно подтвердить отклоненное бронирование";
+        }
+        return null;
     }
 
     public BookingDto getBookingForOwnerOrBooker(long userId, long bookingId) {
         Booking bookingOptional = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("Такого бронирования не существует"));
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             log.debug("This user not found. In getBookingForOwnerOrBooker method");
             throw new UserIdNotFoundException("Такого пользователя не существует");
         }
@@ -100,7 +206,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public Collection<BookingDto> getAllBookingsForUser(long userId, String state, boolean isOwner, Integer from,
                                                         Integer size) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             log.debug("This user not found. In getAllBookingsForUser method");
             throw new UserIdNotFoundException("Такого пользователя не существует");
         }
@@ -177,4 +283,59 @@ public class BookingServiceImpl implements BookingService {
                 throw new InCorrectStatusException(String.format("Unknown state: " + state));//
         }
     }
+
+    @Override
+    public List<BookingDto> getAllBookingsForUserAfterCursor(long userId, String state, boolean isOwner, String cursor,
+                                                             Integer size) {
+        if (!userExistenceCache.exists(userId)) {
+            log.debug("This user not found. In getAllBookingsForUserAfterCursor method");
+            throw new UserIdNotFoundException("Такого пользователя не существует");
+        }
+        BookingCursor after = BookingCursor.decode(cursor);
+        LocalDateTime rightNow = LocalDateTime.now();
+        Pageable limit = PageRequest.of(0, size);
+        List<Booking> bookings;
+        switch (state) {
+            case "ALL":
+                bookings = isOwner
+                        ? bookingRepository.seekBookingListByOwnerId(userId, after.getStart(), after.getId(), limit)
+                        : bookingRepository.seekBookingListByBookerId(userId, after.getStart(), after.getId(), limit);
+                break;
+            case "FUTURE":
+                bookings = isOwner
+                        ? bookingRepository.seekFutureBookingsByOwnerId(
+                        userId, after.getStart(), after.getId(), rightNow, limit)
+                        : bookingRepository.seekFutureBookingsByBookerId(
+                        userId, after.getStart(), after.getId(), rightNow, limit);
+                break;
+            case "CURRENT":
+                bookings = isOwner
+                        ? bookingRepository.seekCurrentBookingsByOwnerId(
+                        userId, after.getStart(), after.getId(), rightNow, limit)
+                        : bookingRepository.seekCurrentBookingsByBookerId(
+                        userId, after.getStart(), after.getId(), rightNow, limit);
+                break;
+            case "PAST":
+                bookings = isOwner
+                        ? bookingRepository.seekPastBookingsByOwnerId(
+                        userId, after.getStart(), after.getId(), rightNow, limit)
+                        : bookingRepository.seekPastBookingsByBookerId(
+                        userId, after.getStart(), after.getId(), rightNow, limit);
+                break;
+            case "WAITING":
+            case "REJECTED":
+                BookingState bookingState = BookingState.valueOf(state);
+                bookings = isOwner
+                        ? bookingRepository.seekBookingsByOwnerIdAndState(
+                        userId, after.getStart(), after.getId(), bookingState, limit)
+                        : bookingRepository.seekBookingsByBookerIdAndState(
+                        userId, after.getStart(), after.getId(), bookingState, limit);
+                break;
+            default:
+                throw new InCorrectStatusException("Unknown state: " + state);
+        }
+        return bookings.stream()
+                .map(BookingMapper::mapToBookingDto)
+                .collect(Collectors.toList());
+    }
 }
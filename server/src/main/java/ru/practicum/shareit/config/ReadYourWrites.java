@@ -0,0 +1,102 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.lang.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a user's reads on the primary for {@code shareit.datasource.replica.read-your-writes} after their last
+ * write, so that they see their own changes while the replica catches up. The user of a request comes from the
+ * X-Sharer-User-Id header ({@link ReadYourWritesFilter}); a request that has written reads from the primary
+ * for the rest of it in any case. Other users, and requests without the header, read from the replica.
+ */
+public class ReadYourWrites {
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowMs;
+    private final Clock clock;
+    private final Map<Long, Long> lastWriteByUser = new ConcurrentHashMap<>();
+    private final ThreadLocal<Request> currentRequest = new ThreadLocal<>();
+
+    public ReadYourWrites(Duration window, Clock clock) {
+        this.windowMs = window.toMillis();
+        this.clock = clock;
+    }
+
+    public void begin(@Nullable Long userId) {
+        currentRequest.set(new Request(userId));
+    }
+
+    /**
+     * The window is counted again from the end of a request that wrote: its transaction has committed by then,
+     * however long it ran.
+     */
+    public void end() {
+        Request request = currentRequest.get();
+        currentRequest.remove();
+        if (request != null && request.wrote) {
+            record(request.userId);
+        }
+    }
+
+    public void wrote() {
+        Request request = currentRequest.get();
+        if (request != null) {
+            request.wrote = true;
+            record(request.userId);
+        }
+    }
+
+    /**
+     * Records a write made for {@code userId} by a request that does not carry that id, e.g. the creation of the
+     * user itself; the user's next requests then read from the primary.
+     */
+    public void wrote(long userId) {
+        record(userId);
+    }
+
+    public boolean readsFromPrimary() {
+        Request request = currentRequest.get();
+        if (request == null) {
+            return false;
+        }
+        if (request.wrote) {
+            return true;
+        }
+        if (request.userId == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(request.userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (clock.millis() - lastWrite < windowMs) {
+            return true;
+        }
+        lastWriteByUser.remove(request.userId, lastWrite);
+        return false;
+    }
+
+    private void record(@Nullable Long userId) {
+        if (userId == null || windowMs <= 0) {
+            return;
+        }
+        long now = clock.millis();
+        lastWriteByUser.put(userId, now);
+        if (lastWriteByUser.size() > SWEEP_THRESHOLD) {
+            lastWriteByUser.values().removeIf(lastWrite -> now - lastWrite >= windowMs);
+        }
+    }
+
+    private static class Request {
+        private final Long userId;
+        private boolean wrote;
+
+        Request(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
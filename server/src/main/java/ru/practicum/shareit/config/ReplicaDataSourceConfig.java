@@ -0,0 +1,63 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Opt-in replica offload: when {@code shareit.datasource.replica.url} is set, read-only transactions run on a
+ * second pool pointed at a replica. The replica takes the primary's credentials unless it has its own, and
+ * pool settings from {@code shareit.datasource.replica.hikari}. Flyway keeps migrating the primary only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.url")
+@Slf4j
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${shareit.datasource.replica.read-your-writes:5s}") Duration window) {
+        return new ReadYourWrites(window, Clock.systemUTC());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new ReadYourWritesFilter(readYourWrites);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                               ReadYourWrites readYourWrites) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties replicaProperties = binder
+                .bind("shareit.datasource.replica", DataSourceProperties.class)
+                .get();
+        if (replicaProperties.getUsername() == null) {
+            replicaProperties.setUsername(properties.determineUsername());
+            replicaProperties.setPassword(properties.determinePassword());
+        }
+        HikariDataSource primary = pool(properties, binder, "spring.datasource.hikari", "primary");
+        HikariDataSource replica = pool(replicaProperties, binder, "shareit.datasource.replica.hikari", "replica");
+        log.info("Read-only transactions are routed to the replica {}", replicaProperties.getUrl());
+        return new ReplicaRoutingDataSource(primary, replica, readYourWrites);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix,
+                                         String poolName) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        pool.setPoolName(poolName);
+        binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+        return pool;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.util.Map;
+
+/**
+ * Sends the connections of read-only transactions to the replica pool and all others to the primary. Spring
+ * publishes a transaction's read-only flag only after asking for its connection, so the routing sits behind a
+ * {@link LazyConnectionDataSourceProxy}: the target is picked when the first statement runs.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements Closeable {
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica,
+                                    ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replica = replica;
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return target(readYourWrites);
+            }
+        };
+        router.setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(new LazyConnectionDataSourceProxy(router));
+    }
+
+    static Target target(ReadYourWrites readYourWrites) {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.wrote();
+            return Target.PRIMARY;
+        }
+        return readYourWrites.readsFromPrimary() ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    /**
+     * The most connections the two pools hand out together.
+     */
+    public int maximumPoolSize() {
+        return primary.getMaximumPoolSize() + replica.getMaximumPoolSize();
+    }
+
+    @Override
+    public void close() {
+        replica.close();
+        primary.close();
+    }
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Accepts Smile (binary JSON) request bodies from the gateway, selected by its Content-Type. Spring MVC registers
+ * a Smile converter of its own when the format is on the classpath, but with a plain mapper that lacks Boot's
+ * modules (DTOs are read through their constructor parameter names), so it is replaced by one built like the
+ * JSON mapper. It stays after the JSON converter: {@code Accept: *}{@code /*} still gets JSON.
+ */
+@Configuration
+public class SmileWireFormatConfig implements WebMvcConfigurer {
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public SmileWireFormatConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder
+                .createXmlMapper(false)
+                .factory(new SmileFactory())
+                .build()));
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in mode (shareit.virtual-threads.enabled=true) that runs every request on its own virtual
+ * thread when the JDK provides them (21+). The project still compiles for Java 11, so the executor
+ * is looked up reflectively; on older JDKs Tomcat keeps its platform thread pool. Database access
+ * is bounded by {@link ConcurrencyLimitedDataSource} in both cases.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadConfig {
+    // Hikari's own default
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        Optional<ExecutorService> executor = newVirtualThreadPerTaskExecutor();
+        if (executor.isEmpty()) {
+            log.warn("Virtual threads are not available on Java {}, requests stay on Tomcat's thread pool",
+                    System.getProperty("java.specification.version"));
+            return protocolHandler -> {
+            };
+        }
+        log.info("Requests are dispatched on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor.get());
+    }
+
+    /**
+     * Permits default to the size of the pool behind the data source, so that a request waits for a connection
+     * here rather than inside the pool.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyLimiter(
+            @Value("${shareit.virtual-threads.db-permits:0}") int permits,
+            @Value("${shareit.virtual-threads.db-acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    DataSource dataSource = (DataSource) bean;
+                    return new ConcurrencyLimitedDataSource(dataSource,
+                            permits > 0 ? permits : maximumPoolSize(dataSource), acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int maximumPoolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource) {
+            return ((HikariDataSource) dataSource).getMaximumPoolSize();
+        }
+        if (dataSource instanceof ReplicaRoutingDataSource) {
+            return ((ReplicaRoutingDataSource) dataSource).maximumPoolSize();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
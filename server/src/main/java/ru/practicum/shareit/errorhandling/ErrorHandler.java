@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
 import ru.practicum.shareit.booking.exceptions.InCorrectBookingException;
 import ru.practicum.shareit.booking.exceptions.InCorrectStatusException;
 import ru.practicum.shareit.item.exceptions.ItemIdNotFoundException;
@@ -78,4 +79,13 @@ public class ErrorHandler {
                 e.getMessage()
         );
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse bookingOverlapHandler(final BookingOverlapException e) {
+        log.error(e.getMessage() + ". Ошибка: " + e.getClass().getName());
+        return new ErrorResponse(
+                e.getMessage()
+        );
+    }
 }
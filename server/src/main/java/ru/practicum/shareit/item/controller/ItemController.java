@@ -2,11 +2,18 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Collection;
 
 import static ru.practicum.shareit.ConstantsForServer.userIdHeader;
@@ -17,6 +24,7 @@ import static ru.practicum.shareit.ConstantsForServer.userIdHeader;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader(userIdHeader) long userId,
@@ -25,6 +33,18 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE,
+            "application/x-jackson-smile"})
+    public void importItems(@RequestHeader(userIdHeader) long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("Вызван метод импорта предметов, в ItemController");
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        response.setContentType(MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        itemImporter.importItems(userId, request.getInputStream(), contentType, response.getOutputStream());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto patchItem(@RequestHeader(userIdHeader) long userId,
                              @PathVariable long itemId,
@@ -34,18 +54,18 @@ public class ItemController {
     }
 
     @GetMapping
-    public Collection<ItemDto> getItemsByOwner(@RequestHeader(userIdHeader) long userId,
-                                               @RequestParam(required = false) Integer from,
-                                               @RequestParam(required = false) Integer size) {
+    public ResponseEntity<Collection<ItemDto>> getItemsByOwner(@RequestHeader(userIdHeader) long userId,
+                                                               @RequestParam(required = false) Integer from,
+                                                               @RequestParam(required = false) Integer size) {
         log.info("Вызван метод получения списка предметов для владельца, в ItemController");
-        return itemService.getAllItemsByOwner(userId, from, size);
+        return ETags.ok(itemService.getAllItemsByOwner(userId, from, size));
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@RequestHeader(userIdHeader) long userId,
-                               @PathVariable long itemId) {
+    public ResponseEntity<ItemDto> getItemById(@RequestHeader(userIdHeader) long userId,
+                                               @PathVariable long itemId) {
         log.info("Вызван метод получения предмета, в ItemController");
-        return itemService.getItemById(userId, itemId);
+        return ETags.ok(itemService.getItemById(userId, itemId));
     }
 
     @GetMapping("/search")
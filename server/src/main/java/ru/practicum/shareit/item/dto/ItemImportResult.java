@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one record of a bulk import: the id of the created item or the reason it was rejected.
+ * {@code index} is the zero-based position of the record in the uploaded stream.
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    private int index;
+    private Long id;
+    private String error;
+}
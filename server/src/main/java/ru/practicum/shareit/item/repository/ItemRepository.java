@@ -15,5 +15,11 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "OR upper(i.description) LIKE upper(CONCAT('%', ?1, '%')))")
     public List<Item> search(String text, Pageable pageable);
 
+    @Query(value = "SELECT * FROM items AS i WHERE UPPER(i.is_available) = 'TRUE' " +
+            "AND (i.name ILIKE CONCAT('%', ?1, '%') OR i.description ILIKE CONCAT('%', ?1, '%')) " +
+            "ORDER BY i.id", nativeQuery = true)
+    public List<Item> searchByTrigram(String text, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.owner.id = ?1")
     public List<Item> findAllByOwnerId(Long ownerId, Pageable pageable);
 }
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index over tokenized item names and descriptions.
+ * Every query token matches index tokens it is a prefix of; an item is returned when all query tokens match,
+ * ranked by the summed weight of the matches, where a name hit outweighs a description hit.
+ * The index is filled from the repository on the first search and then kept current by {@link #index(Item)}.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "index")
+@Slf4j
+public class InMemoryItemSearch implements ItemSearch {
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_MATCH_BONUS = 1;
+
+    private final ItemRepository itemRepository;
+    private final int loadBatchSize;
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    public InMemoryItemSearch(ItemRepository itemRepository,
+                              @Value("${shareit.item-search.load-batch-size:1000}") int loadBatchSize) {
+        this.itemRepository = itemRepository;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    @Override
+    public List<ItemDto> search(String text, Pageable pageable) {
+        loadIfNeeded();
+        List<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String queryToken : queryTokens) {
+                Map<Long, Integer> tokenScores = scoreToken(queryToken);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + tokenScores.get(itemId));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return scores.entrySet().stream()
+                    .filter(entry -> Boolean.TRUE.equals(items.get(entry.getKey()).getAvailable()))
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .map(entry -> items.get(entry.getKey()).toDto())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> scoreToken(String queryToken) {
+        Map<Long, Integer> scores = new HashMap<>();
+        postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                .forEach((token, itemWeights) -> {
+                    int bonus = token.equals(queryToken) ? EXACT_MATCH_BONUS : 0;
+                    itemWeights.forEach((itemId, weight) -> scores.merge(itemId, weight + bonus, Math::max));
+                });
+        return scores;
+    }
+
+    private void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            Pageable pageable = PageRequest.of(0, loadBatchSize, Sort.by("id"));
+            Page<Item> page;
+            do {
+                page = itemRepository.findAll(pageable);
+                page.forEach(item -> {
+                    if (!items.containsKey(item.getId())) {
+                        put(item);
+                    }
+                });
+                pageable = page.nextPageable();
+            } while (page.hasNext());
+            loaded = true;
+            log.info("Item search index loaded with {} items and {} tokens", items.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Item item) {
+        IndexedItem previous = items.remove(item.getId());
+        if (previous != null) {
+            previous.getWeights().keySet().forEach(token -> {
+                Map<Long, Integer> itemWeights = postings.get(token);
+                itemWeights.remove(item.getId());
+                if (itemWeights.isEmpty()) {
+                    postings.remove(token);
+                }
+            });
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        tokenize(item.getName()).forEach(token -> weights.merge(token, NAME_WEIGHT, Integer::sum));
+        tokenize(item.getDescription()).forEach(token -> weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+        weights.forEach((token, weight) -> postings.computeIfAbsent(token, key -> new HashMap<>())
+                .put(item.getId(), weight));
+        items.put(item.getId(), new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getRequest() != null ? item.getRequest().getId() : null, weights));
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(DELIMITER.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class IndexedItem {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long requestId;
+        private final Map<String, Integer> weights;
+
+        ItemDto toDto() {
+            return ItemDto.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+}
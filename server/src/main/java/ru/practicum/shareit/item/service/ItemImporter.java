@@ -0,0 +1,244 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates items from an NDJSON stream, a JSON array or a Smile array, reading one record at a time. Every
+ * {@code shareit.item-import.batch-size} records are inserted in one transaction as JDBC batches; when the batch
+ * fails, its records are retried one per transaction so that only the bad ones are reported. A result is written
+ * per record in the input order, numbered from zero.
+ */
+@Service
+@Slf4j
+public class ItemImporter {
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileObjectMapper;
+    private final int batchSize;
+
+    public ItemImporter(ItemRepository itemRepository, UserRepository userRepository,
+                        ItemRequestRepository itemRequestRepository, ItemSearch itemSearch,
+                        EntityManager entityManager, PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper, Jackson2ObjectMapperBuilder objectMapperBuilder,
+                        @Value("${shareit.item-import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearch = itemSearch;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.smileObjectMapper = objectMapperBuilder
+                .createXmlMapper(false)
+                .factory(new SmileFactory())
+                .build();
+        this.batchSize = batchSize;
+    }
+
+    public void importItems(long userId, InputStream in, MediaType contentType, OutputStream out) throws IOException {
+        ObjectMapper reader = SMILE.isCompatibleWith(contentType) ? smileObjectMapper : objectMapper;
+        try (MappingIterator<ItemDto> records = reader.readerFor(ItemDto.class).readValues(in);
+             SequenceWriter results = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                     ? objectMapper.writer().withRootValueSeparator("\n").writeValues(out)
+                     : objectMapper.writer().writeValuesAsArray(out)) {
+            Owner owner = new Owner(userId);
+            List<ImportRecord> batch = new ArrayList<>(batchSize);
+            int index = 0;
+            boolean readable = true;
+            while (readable) {
+                ImportRecord record = new ImportRecord(index);
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    record.itemDto = records.nextValue();
+                } catch (JsonMappingException e) {
+                    record.error = e.getOriginalMessage();
+                } catch (JsonProcessingException e) {
+                    record.error = e.getOriginalMessage();
+                    readable = false;
+                }
+                batch.add(record);
+                index++;
+                if (batch.size() == batchSize || !readable) {
+                    save(owner, batch, results);
+                    batch.clear();
+                }
+            }
+            save(owner, batch, results);
+            log.info("Imported {} item records for userId={}", index, userId);
+        }
+    }
+
+    /**
+     * The owner and the requests are read in the transaction that inserts the batch: outside a read-write
+     * transaction they would come from the replica, which may not have them yet.
+     */
+    private void save(Owner owner, List<ImportRecord> batch, SequenceWriter results) throws IOException {
+        List<ImportRecord> parsed = batch.stream()
+                .filter(record -> record.error == null)
+                .collect(Collectors.toList());
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        List<ImportRecord> valid = new ArrayList<>();
+        if (!parsed.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    owner.load();
+                    requests.putAll(findRequests(parsed));
+                    valid.addAll(prepare(owner, parsed, requests));
+                    if (!valid.isEmpty()) {
+                        insert(valid);
+                    }
+                });
+            } catch (DataAccessException e) {
+                if (valid.isEmpty()) {
+                    // the lookups failed, nothing was inserted
+                    parsed.forEach(record -> record.error = e.getMostSpecificCause().getMessage());
+                } else {
+                    log.debug("Item import batch failed, retrying record by record: {}", e.getMessage());
+                    for (ImportRecord record : valid) {
+                        record.item = toItem(owner.user, record.itemDto, requests);
+                        try {
+                            insert(List.of(record));
+                        } catch (DataAccessException recordFailure) {
+                            record.item = null;
+                            record.error = recordFailure.getMostSpecificCause().getMessage();
+                        }
+                    }
+                }
+            }
+        }
+        for (ImportRecord record : batch) {
+            if (record.item != null) {
+                itemSearch.index(record.item);
+            }
+            results.write(ItemImportResult.builder()
+                    .index(record.index)
+                    .id(record.item != null ? record.item.getId() : null)
+                    .error(record.error)
+                    .build());
+        }
+        results.flush();
+    }
+
+    private Map<Long, ItemRequest> findRequests(List<ImportRecord> records) {
+        Set<Long> requestIds = records.stream()
+                .map(record -> record.itemDto.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return requestIds.isEmpty() ? Map.of() : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
+    private static List<ImportRecord> prepare(Owner owner, List<ImportRecord> records,
+                                              Map<Long, ItemRequest> requests) {
+        List<ImportRecord> valid = new ArrayList<>();
+        for (ImportRecord record : records) {
+            Long requestId = record.itemDto.getRequestId();
+            if (owner.user == null) {
+                record.error = String.format("userId: \"%s\" не найден", owner.userId);
+            } else if (requestId != null && !requests.containsKey(requestId)) {
+                record.error = String.format("requestId: \"%s\" не найден", requestId);
+            } else {
+                record.item = toItem(owner.user, record.itemDto, requests);
+                valid.add(record);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * The persistence context is cleared after every batch so that it never holds more than one batch of items,
+     * even when a caller keeps an entity manager open around the whole import.
+     */
+    private void insert(List<ImportRecord> records) {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.saveAllAndFlush(records.stream()
+                    .map(record -> record.item)
+                    .collect(Collectors.toList()));
+            entityManager.clear();
+        });
+    }
+
+    private static Item toItem(User owner, ItemDto itemDto, Map<Long, ItemRequest> requests) {
+        Item item = ItemMapper.mapToItem(owner, itemDto);
+        if (itemDto.getRequestId() != null) {
+            item.setRequest(requests.get(itemDto.getRequestId()));
+        }
+        return item;
+    }
+
+    /**
+     * The importing user, looked up once with the first batch that has records to insert.
+     */
+    private class Owner {
+        private final long userId;
+        private User user;
+        private boolean loaded;
+
+        Owner(long userId) {
+            this.userId = userId;
+        }
+
+        void load() {
+            if (!loaded) {
+                user = userRepository.findById(userId).orElse(null);
+                loaded = true;
+            }
+        }
+    }
+
+    private static class ImportRecord {
+        private final int index;
+        private ItemDto itemDto;
+        private Item item;
+        private String error;
+
+        ImportRecord(int index) {
+            this.index = index;
+        }
+    }
+}
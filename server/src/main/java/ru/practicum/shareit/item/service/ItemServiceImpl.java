@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AfterTransaction;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.exceptions.InCorrectBookingException;
@@ -19,48 +21,55 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.request.exceptions.RequestIdNotFoundException;
-import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
 
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRequestRepository itemRequestRepository;
     private final BookingRepository bookingRepository;
+    private final ItemSearch itemSearch;
 
     @Override
+    @Transactional
     public ItemDto createItem(long userId, ItemDto itemDto) {
         User userOptional = userRepository.findById(userId)
                 .orElseThrow(() -> new UserIdNotFoundException(String.format("userId: \"%s\" не найден", userId)));
         Item item = ItemMapper.mapToItem(userOptional, itemDto);
-        if (itemDto.getRequestId() != null && itemRequestRepository.existsById(itemDto.getRequestId())) { //
-            ItemRequest itemRequest = itemRequestRepository.findById(itemDto.getRequestId()).orElseThrow(() ->
-                    new RequestIdNotFoundException(String.format("requestId: \"%s\" не найден",
-                            itemDto.getRequestId())));
-            item.setRequest(itemRequest);
-            itemRequest.getItems().add(item);
-            itemRequestRepository.save(itemRequest);
+        if (itemDto.getRequestId() != null) {
+            itemRequestRepository.findById(itemDto.getRequestId()).ifPresent(itemRequest -> {
+                item.setRequest(itemRequest);
+                itemRequest.getItems().add(item);
+            });
         }
-        return ItemMapper.mapToDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        AfterTransaction.commit(() -> itemSearch.index(savedItem));
+        return ItemMapper.mapToDto(savedItem);
     }
 
     @Override
+    @Transactional
     public ItemDto updateItem(long userId, long itemId, ItemDto itemDto) {
         User userOptional = userRepository.findById(userId)
                 .orElseThrow(() -> new UserIdNotFoundException(String.format("itemId: \"%s\" не найден", userId)));
@@ -76,12 +85,14 @@ public class ItemServiceImpl implements ItemService {
         if (item.getDescription() != null) {
             itemOptional.setDescription(item.getDescription());
         }
-        return ItemMapper.mapToDto(itemRepository.save(itemOptional));
+        Item savedItem = itemRepository.save(itemOptional);
+        AfterTransaction.commit(() -> itemSearch.index(savedItem));
+        return ItemMapper.mapToDto(savedItem);
     }
 
     @Override
     public Collection<ItemDto> getAllItemsByOwner(long userId, Integer from, Integer size) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             log.debug("User id not found in getAllItemsByOwner method");
             throw new UserIdNotFoundException(String.format("userId: \"%s\" не найден", userId));
         }
@@ -93,13 +104,13 @@ public class ItemServiceImpl implements ItemService {
                 .map(ItemMapper::mapToDto)
                 .sorted(Comparator.comparingLong(ItemDto::getId))
                 .collect(Collectors.toList());
-        itemsDto.forEach(this::addLastAndNextBookingToItem);
+        addLastAndNextBookingToItems(itemsDto);
         return itemsDto;
     }
 
     @Override
     public ItemDto getItemById(long userId, long itemId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             log.debug("User id not found in getItemById method");
             throw new UserIdNotFoundException(String.format("userId: \"%s\" не найден", userId));
         }
@@ -130,6 +141,32 @@ public class ItemServiceImpl implements ItemService {
         } else itemDto.setLastBooking(null);
     }
 
+    private void addLastAndNextBookingToItems(List<ItemDto> itemsDto) {
+        if (itemsDto.isEmpty()) {
+            return;
+        }
+        LocalDateTime rightNow = LocalDateTime.now();
+        List<Long> itemIds = itemsDto.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, Booking> nextBookings = groupByItemId(bookingRepository.findNextBookingsByItemIds(
+                itemIds, rightNow, BookingState.REJECTED));
+        Map<Long, Booking> lastBookings = groupByItemId(bookingRepository.findLastBookingsByItemIds(
+                itemIds, rightNow, BookingState.REJECTED));
+        for (ItemDto itemDto : itemsDto) {
+            Booking nextBooking = nextBookings.get(itemDto.getId());
+            Booking lastBooking = lastBookings.get(itemDto.getId());
+            itemDto.setNextBooking(nextBooking != null ? BookingMapper.mapToShortBooking(nextBooking) : null);
+            itemDto.setLastBooking(lastBooking != null ? BookingMapper.mapToShortBooking(lastBooking) : null);
+        }
+    }
+
+    private Map<Long, Booking> groupByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+
     @Override
     public Collection<ItemDto> searchItem(String text, Integer from, Integer size) {
         if (text.isEmpty()) {
@@ -137,12 +174,11 @@ public class ItemServiceImpl implements ItemService {
         }
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size);
-        return itemRepository.search(text, pageable).stream()
-                .map(ItemMapper::mapToDto)
-                .collect(Collectors.toList());
+        return itemSearch.search(text, pageable);
     }
 
     @Override
+    @Transactional
     public CommentDto postComment(long userId, long itemId, CommentDto commentDto) {
         User userOptional = userRepository.findById(userId)
                 .orElseThrow(() -> new UserIdNotFoundException(String.format("userId: \"%s\" не найден", userId)));
@@ -2,8 +2,10 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -26,23 +28,23 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public Collection<ItemRequestDto> getRequestsByRequestor(@RequestHeader(userIdHeader) long userId) {
+    public ResponseEntity<Collection<ItemRequestDto>> getRequestsByRequestor(@RequestHeader(userIdHeader) long userId) {
         log.info("Вызван метод получения списка запросов на предмет для создателя запроса, в ItemRequestController");
-        return itemRequestService.getRequestsByRequestor(userId);
+        return ETags.ok(itemRequestService.getRequestsByRequestor(userId));
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequestByRequestId(@RequestHeader(userIdHeader) long userId,
-                                                @PathVariable long requestId) {
+    public ResponseEntity<ItemRequestDto> getRequestByRequestId(@RequestHeader(userIdHeader) long userId,
+                                                                @PathVariable long requestId) {
         log.info("Вызван метод получения списка запросов на предмет для создателя запроса, в ItemRequestController");
-        return itemRequestService.getRequestByRequestId(userId, requestId);
+        return ETags.ok(itemRequestService.getRequestByRequestId(userId, requestId));
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestDto> getRequestsWithPagination(@RequestHeader(userIdHeader) long userId,
-                                                                @RequestParam(required = false) Integer from,
-                                                                @RequestParam(required = false) Integer size) {
+    public ResponseEntity<Collection<ItemRequestDto>> getRequestsWithPagination(@RequestHeader(userIdHeader) long userId,
+                                                                                @RequestParam(required = false) Integer from,
+                                                                                @RequestParam(required = false) Integer size) {
         log.info("Вызван метод получения списка запросов на предмет с пагинацией, в ItemRequestController");
-        return itemRequestService.getRequestsWithPagination(userId, from, size);
+        return ETags.ok(itemRequestService.getRequestsWithPagination(userId, from, size));
     }
 }
@@ -12,6 +12,7 @@ import java.util.List;
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("SELECT ir FROM ItemRequest AS ir WHERE ir.requestor.id = ?1 ORDER BY ir.created DESC")
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long requestorId);
 
     @Query("SELECT ir FROM ItemRequest AS ir " +
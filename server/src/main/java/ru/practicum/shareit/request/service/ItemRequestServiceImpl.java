@@ -6,6 +6,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.exceptions.RequestIdNotFoundException;
@@ -14,6 +15,7 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -24,12 +26,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Service
 @Slf4j
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRequestRepository itemRequestRepository;
 
     @Override
+    @Transactional
     public ItemRequestDto createRequest(long userId, ItemRequestDto itemRequestDto) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserIdNotFoundException(
                 String.format("userId: \"%s\" не найден", userId)));
@@ -40,7 +45,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public Collection<ItemRequestDto> getRequestsByRequestor(long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             log.debug("User id not found in getRequestsByRequestor method");
             throw new UserIdNotFoundException(String.format("userId: \"%s\" не найден", userId));
         }
@@ -55,7 +60,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getRequestByRequestId(long userId, long requestId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             log.debug("User id not found in getRequestByRequestId method");
             throw new UserIdNotFoundException(String.format("userId: \"%s\" не найден", userId));
         }
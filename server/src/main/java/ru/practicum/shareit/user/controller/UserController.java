@@ -2,7 +2,9 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -17,9 +19,9 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    public Collection<UserDto> getUsers() {
+    public ResponseEntity<Collection<UserDto>> getUsers() {
         log.info("Вызван метод получения списка пользователей, в UserController");
-        return userService.getAllUsers();
+        return ETags.ok(userService.getAllUsers());
     }
 
     @PostMapping
@@ -39,9 +41,9 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable("userId") long userId) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable("userId") long userId) {
         log.info("Вызван метод получения пользователя, в UserController");
-        return userService.getUser(userId);
+        return ETags.ok(userService.getUser(userId));
     }
 
     @DeleteMapping("/{userId}")
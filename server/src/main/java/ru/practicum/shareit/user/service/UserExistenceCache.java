@@ -0,0 +1,89 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers ids of users known to exist so that validating the X-Sharer-User-Id header
+ * does not cost a query on every request. Only positive answers are cached. Every request
+ * passes through here, so a hit takes no lock: it only stamps the entry with a use counter.
+ * Once the cache outgrows its size, one thread drops the least recently used tenth in a
+ * single pass, which makes eviction approximately LRU. {@link UserServiceImpl} keeps it
+ * in sync on create and delete.
+ */
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final Map<Long, Long> lastUseByUserId = new ConcurrentHashMap<>();
+    private final AtomicLong uses = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.user-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+    }
+
+    public boolean exists(long userId) {
+        if (lastUseByUserId.replace(userId, uses.incrementAndGet()) != null) {
+            return true;
+        }
+        long observedGeneration = generation.get();
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            remember(userId);
+            // a delete that happened while we were querying may have made the answer stale
+            if (observedGeneration != generation.get()) {
+                lastUseByUserId.remove(userId);
+            }
+        }
+        return exists;
+    }
+
+    public void add(long userId) {
+        remember(userId);
+    }
+
+    public void remove(long userId) {
+        generation.incrementAndGet();
+        lastUseByUserId.remove(userId);
+    }
+
+    int size() {
+        return lastUseByUserId.size();
+    }
+
+    private void remember(long userId) {
+        lastUseByUserId.put(userId, uses.incrementAndGet());
+        // re-checked after each pass: ids added while another thread was evicting found the flag taken
+        while (lastUseByUserId.size() > maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                evictLeastRecentlyUsed();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        int excess = lastUseByUserId.size() - maxSize + maxSize / 10;
+        if (excess <= 0) {
+            return;
+        }
+        long[] lastUses = lastUseByUserId.values().stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        long threshold = lastUses[Math.min(excess, lastUses.length) - 1];
+        // entries used while sorting carry a newer stamp and stay
+        lastUseByUserId.values().removeIf(lastUse -> lastUse <= threshold);
+    }
+}
@@ -2,7 +2,11 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.AfterTransaction;
+import ru.practicum.shareit.config.ReadYourWrites;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
@@ -15,8 +19,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Service
 @Slf4j
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final UserExistenceCache userExistenceCache;
+    // present only when reads go to a replica
+    private final ObjectProvider<ReadYourWrites> readYourWrites;
 
     public Collection<UserDto> getAllUsers() {
         return repository.findAll().stream()
@@ -24,11 +32,19 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public UserDto createUser(UserDto userDto) {
         User user = UserMapper.mapToUser(userDto);
-        return UserMapper.mapToDto(repository.save(user));
+        User savedUser = repository.save(user);
+        AfterTransaction.commit(() -> {
+            userExistenceCache.add(savedUser.getId());
+            // POST /users has no X-Sharer-User-Id, so the new user's reads are not kept on the primary otherwise
+            readYourWrites.ifAvailable(tracker -> tracker.wrote(savedUser.getId()));
+        });
+        return UserMapper.mapToDto(savedUser);
     }
 
+    @Transactional
     public UserDto updateUser(UserDto userDto) {
         User user = UserMapper.mapToUser(userDto.getId(), userDto);
         User oldUser = repository.findById(user.getId())
@@ -48,7 +64,9 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapToDto(userOptional);
     }
 
+    @Transactional
     public void deleteUser(long id) {
         repository.deleteById(id);
+        AfterTransaction.commit(() -> userExistenceCache.remove(id));
     }
 }
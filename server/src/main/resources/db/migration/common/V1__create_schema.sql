@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS users CASCADE;
-
 create TABLE IF NOT EXISTS users (
 id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
 name VARCHAR(255) NOT NULL,
@@ -50,7 +44,3 @@ created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
 CONSTRAINT PK_COMMENT PRIMARY KEY (id),
 CONSTRAINT FK_COMMENT_USER FOREIGN KEY (author_id) REFERENCES users (id),
 CONSTRAINT FK_COMMENT_ITEM FOREIGN KEY (item_id) REFERENCES items (id));
-
-
-
-
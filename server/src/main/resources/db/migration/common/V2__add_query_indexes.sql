@@ -0,0 +1,6 @@
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_BOOKER_START ON bookings (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_ITEM_START ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_OWNER ON items (owner_id);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_REQUEST ON items (request_id);
+CREATE INDEX IF NOT EXISTS IDX_COMMENT_ITEM ON comments (item_id);
+CREATE INDEX IF NOT EXISTS IDX_REQUEST_REQUESTOR_CREATED ON requests (requestor_id, created);
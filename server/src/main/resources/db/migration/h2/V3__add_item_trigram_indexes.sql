@@ -0,0 +1,2 @@
+-- H2 has no trigram indexes, trigram search falls back to a plain ILIKE scan.
+-- The migration is kept so that both databases report the same schema version.
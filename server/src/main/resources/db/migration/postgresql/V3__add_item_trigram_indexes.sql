@@ -0,0 +1,3 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS IDX_ITEM_NAME_TRGM ON items USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_DESCRIPTION_TRGM ON items USING GIN (description gin_trgm_ops);
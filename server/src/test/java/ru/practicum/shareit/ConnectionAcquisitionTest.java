@@ -0,0 +1,168 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts how many times each endpoint takes a connection from the pool. Every service method runs in one
+ * transaction, so a request should check out a single connection however many queries it makes.
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ConnectionAcquisitionTest {
+    private static final AtomicInteger acquisitions = new AtomicInteger();
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    Map<String, Integer> counts = new LinkedHashMap<>();
+
+    @Test
+    void everyEndpointAcquiresAtMostOneConnection() {
+        long owner = id(perform("POST /users", post("/users")
+                .content("{\"name\":\"maks\",\"email\":\"maks220@mail.ru\"}")));
+        long booker = id(perform("POST /users", post("/users")
+                .content("{\"name\":\"sanya\",\"email\":\"gera789@mail.ru\"}")));
+        long request = id(perform("POST /requests", post("/requests")
+                .header("X-Sharer-User-Id", booker)
+                .content("{\"description\":\"Need a PC\"}")));
+        long item = id(perform("POST /items", post("/items")
+                .header("X-Sharer-User-Id", owner)
+                .content("{\"name\":\"PC\",\"description\":\"GamingPC\",\"available\":true,\"requestId\":"
+                        + request + "}")));
+        perform("PATCH /items/{itemId}", patch("/items/{itemId}", item)
+                .header("X-Sharer-User-Id", owner)
+                .content("{\"description\":\"Gaming PC\"}"));
+        long pastBooking = id(perform("POST /bookings", post("/bookings")
+                .header("X-Sharer-User-Id", booker)
+                .content(booking(item, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2)))));
+        perform("PATCH /bookings/{bookingId}", patch("/bookings/{bookingId}", pastBooking)
+                .header("X-Sharer-User-Id", owner)
+                .param("approved", "true"));
+        long futureBooking = id(perform("POST /bookings", post("/bookings")
+                .header("X-Sharer-User-Id", booker)
+                .content(booking(item, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3)))));
+        perform("PATCH /bookings", patch("/bookings")
+                .header("X-Sharer-User-Id", owner)
+                .param("approved", "false")
+                .content("[" + futureBooking + "]"));
+        perform("POST /items/{itemId}/comment", post("/items/{itemId}/comment", item)
+                .header("X-Sharer-User-Id", booker)
+                .content("{\"text\":\"Works fine\"}"));
+        perform("GET /items/{itemId}", get("/items/{itemId}", item).header("X-Sharer-User-Id", owner));
+        perform("GET /items", get("/items").header("X-Sharer-User-Id", owner)
+                .param("from", "0")
+                .param("size", "10"));
+        perform("GET /items/search", get("/items/search").header("X-Sharer-User-Id", booker)
+                .param("text", "pc")
+                .param("from", "0")
+                .param("size", "10"));
+        perform("GET /bookings/{bookingId}", get("/bookings/{bookingId}", pastBooking)
+                .header("X-Sharer-User-Id", booker));
+        perform("GET /bookings", get("/bookings").header("X-Sharer-User-Id", booker)
+                .param("from", "0")
+                .param("size", "10"));
+        perform("GET /bookings/owner", get("/bookings/owner").header("X-Sharer-User-Id", owner)
+                .param("from", "0")
+                .param("size", "10"));
+        perform("GET /requests", get("/requests").header("X-Sharer-User-Id", booker));
+        perform("GET /requests/all", get("/requests/all").header("X-Sharer-User-Id", owner)
+                .param("from", "0")
+                .param("size", "10"));
+        perform("GET /requests/{requestId}", get("/requests/{requestId}", request)
+                .header("X-Sharer-User-Id", owner));
+        perform("GET /users", get("/users"));
+        perform("GET /users/{userId}", get("/users/{userId}", owner));
+        perform("PATCH /users/{userId}", patch("/users/{userId}", owner)
+                .content("{\"name\":\"maksim\"}"));
+        long leaving = id(perform("POST /users", post("/users")
+                .content("{\"name\":\"roma\",\"email\":\"romafifa@mail.ru\"}")));
+        perform("DELETE /users/{userId}", delete("/users/{userId}", leaving));
+
+        StringBuilder report = new StringBuilder("Connections acquired per request:");
+        counts.forEach((endpoint, count) -> report.append(String.format("%n  %-30s %d", endpoint, count)));
+        log.info(report.toString());
+        List<Executable> checks = new ArrayList<>();
+        counts.forEach((endpoint, count) -> checks.add(() -> Assertions.assertTrue(count <= 1,
+                endpoint + " acquired " + count + " connections")));
+        Assertions.assertAll(checks);
+    }
+
+    @SneakyThrows
+    private String perform(String endpoint, MockHttpServletRequestBuilder request) {
+        acquisitions.set(0);
+        String response = mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        counts.merge(endpoint, acquisitions.get(), Math::max);
+        return response;
+    }
+
+    @SneakyThrows
+    private long id(String response) {
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private static String booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}", itemId, start.withNano(0),
+                end.withNano(0));
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource) {
+                        return new DelegatingDataSource((DataSource) bean) {
+                            @Override
+                            public Connection getConnection() throws SQLException {
+                                acquisitions.incrementAndGet();
+                                return super.getConnection();
+                            }
+                        };
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
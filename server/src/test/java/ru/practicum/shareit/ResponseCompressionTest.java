@@ -0,0 +1,53 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ResponseCompressionTest {
+
+    @LocalServerPort
+    int port;
+    HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void largeResponseIsGzippedSmallOneIsNot() throws IOException, InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(uri("/users"))
+                    .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"user" + i + "\",\"email\":\"user" + i + "@user.com\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(200, created.statusCode());
+        }
+
+        HttpResponse<byte[]> list = get("/users");
+        HttpResponse<byte[]> single = get("/users/1");
+
+        Assertions.assertEquals("gzip", list.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        Assertions.assertTrue(single.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+    }
+
+    private HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(uri(path))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
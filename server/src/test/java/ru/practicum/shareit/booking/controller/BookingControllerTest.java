@@ -10,6 +10,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enums.BookingState;
@@ -25,6 +27,7 @@ import java.util.stream.Collectors;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -118,6 +121,34 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
 
+    @SneakyThrows
+    @Test
+    void approveOrCancelBookings() {
+        bookingAfterSave.setState(BookingState.REJECTED);
+        Mockito.when(bookingService.acceptOrDeclineBookings(secondUser.getId(), List.of(1L, 5L), false))
+                .thenReturn(List.of(
+                        BookingDecisionResult.builder()
+                                .bookingId(1L)
+                                .booking(BookingMapper.mapToBookingDto(bookingAfterSave))
+                                .build(),
+                        BookingDecisionResult.builder()
+                                .bookingId(5L)
+                                .error("Такого бронирования не существует")
+                                .build()));
+
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", String.valueOf(secondUser.getId()))
+                        .param("approved", String.valueOf(false))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 5]"))
+                .andDo(print())
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$[0].booking.status").value("REJECTED"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].bookingId").value(5L))
+                .andExpect(jsonPath("$[1].booking").doesNotExist());
+    }
+
     @SneakyThrows
     @Test
     void getBookingForOwnerOrBooker() {
@@ -199,4 +230,37 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id").value(2L))
                 .andExpect(jsonPath("$[0].item.name").value("Hammer"));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getAllBookingsForBookerAfterCursor() {
+        BookingDto bookingDto = BookingMapper.mapToBookingDto(bookingAfterSave);
+        String cursor = BookingCursor.of(bookingDto).encode();
+        Mockito.when(bookingService.getAllBookingsForUserAfterCursor(firstUser.getId(), "ALL", false, cursor, 1))
+                .thenReturn(List.of(bookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", String.valueOf(firstUser.getId()))
+                        .param("state", "ALL")
+                        .param("cursor", cursor)
+                        .param("size", "1"))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(header().string("X-Next-Cursor", cursor));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAllBookingForOwnerWithoutNextCursorOnLastPage() {
+        Mockito.when(bookingService.getAllBookingsForUser(firstUser.getId(), "ALL", true, 0, 2))
+                .thenReturn(List.of(BookingMapper.mapToBookingDto(bookingAfterSave)));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", String.valueOf(firstUser.getId()))
+                        .param("state", "ALL")
+                        .param("from", "0")
+                        .param("size", "2"))
+                .andExpect(status().is(200))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingListingStatementCountTest {
+    private static final int BOOKINGS = 50;
+
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    TestEntityManager entityManager;
+    Statistics statistics;
+    User owner;
+    User firstBooker;
+    Booking firstBooking;
+
+    @BeforeEach
+    void init() {
+        owner = new User();
+        owner.setName("maks");
+        owner.setEmail("maks220@mail.ru");
+        entityManager.persist(owner);
+        LocalDateTime start = LocalDateTime.now().minusDays(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            User booker = new User();
+            booker.setName("booker" + i);
+            booker.setEmail("booker" + i + "@mail.ru");
+            entityManager.persist(booker);
+
+            ItemRequest request = new ItemRequest();
+            request.setDescription("Need a PC");
+            request.setRequestor(booker);
+            request.setCreated(start);
+            entityManager.persist(request);
+
+            Item item = new Item();
+            item.setOwner(owner);
+            item.setName("PC" + i);
+            item.setDescription("GamingPC");
+            item.setAvailable(true);
+            item.setRequest(request);
+            entityManager.persist(item);
+
+            Booking booking = new Booking();
+            booking.setBooker(booker);
+            booking.setItem(item);
+            booking.setState(BookingState.APPROVED);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1));
+            entityManager.persist(booking);
+            if (i == 0) {
+                firstBooker = booker;
+                firstBooking = booking;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, BOOKINGS})
+    void ownerListingIsOneStatementPerPage(int size) {
+        List<BookingDto> page = toDto(bookingRepository.getBookingListByOwnerId(owner.getId(),
+                PageRequest.of(0, size)));
+
+        Assertions.assertEquals(size, page.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, BOOKINGS})
+    void ownerListingByStateIsOneStatementPerPage(int size) {
+        List<BookingDto> page = toDto(bookingRepository.getAllByItemOwnerIdAndStateOrderByStartDesc(owner.getId(),
+                BookingState.APPROVED, PageRequest.of(0, size)));
+
+        Assertions.assertEquals(size, page.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, BOOKINGS})
+    void ownerSeekIsOneStatementPerPage(int size) {
+        List<BookingDto> page = toDto(bookingRepository.seekPastBookingsByOwnerId(owner.getId(),
+                LocalDateTime.now(), Long.MAX_VALUE, LocalDateTime.now(), PageRequest.of(0, size)));
+
+        Assertions.assertEquals(size, page.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bookerListingIsOneStatement() {
+        List<BookingDto> page = toDto(bookingRepository.getBookingListByBookerId(firstBooker.getId(),
+                PageRequest.of(0, 10)));
+
+        Assertions.assertEquals(1, page.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdLoadsItemAndBookerInOneStatement() {
+        Booking booking = bookingRepository.findById(firstBooking.getId()).orElseThrow();
+
+        Assertions.assertEquals(owner.getId(), booking.getItem().getOwner().getId());
+        Assertions.assertEquals(firstBooker.getName(), booking.getBooker().getName());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllByIdInLoadsItemsAndBookersInOneStatement() {
+        List<Long> ids = bookingRepository.getBookingListByOwnerId(owner.getId(), PageRequest.of(0, BOOKINGS))
+                .stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+        entityManager.clear();
+        statistics.clear();
+
+        List<BookingDto> bookings = toDto(bookingRepository.findAllByIdIn(ids));
+
+        Assertions.assertEquals(BOOKINGS, bookings.size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private List<BookingDto> toDto(List<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::mapToBookingDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.enums.BookingState;
@@ -27,6 +28,8 @@ class BookingRepositoryTest {
     ItemRepository itemRepository;
     @Autowired
     BookingRepository bookingRepository;
+    @Autowired
+    TestEntityManager entityManager;
     User firstUser;
     User secondUser;
     Item firstItem;
@@ -174,6 +177,20 @@ class BookingRepositoryTest {
         Assertions.assertEquals(List.of(nextBookingSaved, lastBookingSaved), bookings);
     }
 
+    @Test
+    void bookingsByStateWithSameStartAreOrderedById() {
+        nextBookingSaved.setStart(lastBookingSaved.getStart());
+        entityManager.flush();
+
+        List<Booking> byBooker = bookingRepository.getAllByBookerIdAndStateOrderByStartDesc(
+                firstUserSaved.getId(), BookingState.APPROVED, PageRequest.of(0, 2));
+        List<Booking> byOwner = bookingRepository.getAllByItemOwnerIdAndStateOrderByStartDesc(
+                secondUserSaved.getId(), BookingState.APPROVED, PageRequest.of(0, 2));
+
+        Assertions.assertEquals(List.of(nextBookingSaved, lastBookingSaved), byBooker);
+        Assertions.assertEquals(List.of(nextBookingSaved, lastBookingSaved), byOwner);
+    }
+
     @Test
     void getBookingListByOwnerId() {
         List<Booking> bookings = bookingRepository.getBookingListByOwnerId(
@@ -220,4 +237,54 @@ class BookingRepositoryTest {
 
         Assertions.assertEquals(actual, nextBookingSaved);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findLastBookingsByItemIds() {
+        List<Booking> actual = bookingRepository.findLastBookingsByItemIds(
+                List.of(firstItemSaved.getId(), secondItemSaved.getId()), LocalDateTime.now(), BookingState.REJECTED);
+
+        Assertions.assertEquals(List.of(lastBookingSaved), actual);
+    }
+
+    @Test
+    void findNextBookingsByItemIds() {
+        Booking laterBooking = new Booking();
+        laterBooking.setBooker(firstUserSaved);
+        laterBooking.setItem(secondItemSaved);
+        laterBooking.setState(BookingState.WAITING);
+        laterBooking.setStart(LocalDateTime.now().plusMonths(6));
+        laterBooking.setEnd(LocalDateTime.now().plusMonths(7));
+        bookingRepository.save(laterBooking);
+        List<Booking> actual = bookingRepository.findNextBookingsByItemIds(
+                List.of(firstItemSaved.getId(), secondItemSaved.getId()), LocalDateTime.now(), BookingState.REJECTED);
+
+        Assertions.assertEquals(List.of(nextBookingSaved), actual);
+    }
+
+    @Test
+    void seekBookingListByBookerId() {
+        entityManager.flush();
+        entityManager.clear();
+        List<Booking> firstPage = bookingRepository.getBookingListByBookerId(
+                firstUserSaved.getId(), PageRequest.of(0, 1));
+        Booking last = firstPage.get(0);
+        List<Booking> secondPage = bookingRepository.seekBookingListByBookerId(
+                firstUserSaved.getId(), last.getStart(), last.getId(), PageRequest.of(0, 1));
+
+        Assertions.assertEquals(nextBookingSaved.getId(), last.getId());
+        Assertions.assertEquals(1, secondPage.size());
+        Assertions.assertEquals(lastBookingSaved.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void seekBookingsByOwnerIdAndState() {
+        entityManager.flush();
+        entityManager.clear();
+        Booking cursor = bookingRepository.findById(nextBookingSaved.getId()).orElseThrow();
+        List<Booking> bookings = bookingRepository.seekBookingsByOwnerIdAndState(secondUserSaved.getId(),
+                cursor.getStart(), cursor.getId(), BookingState.APPROVED, PageRequest.of(0, 2));
+
+        Assertions.assertEquals(1, bookings.size());
+        Assertions.assertEquals(lastBookingSaved.getId(), bookings.get(0).getId());
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+
+    @Mock
+    BookingRepository bookingRepository;
+    @Mock
+    Clock clock;
+    BookingAvailabilityIndex availabilityIndex;
+    Item item;
+    Booking booking;
+    LocalDateTime start;
+
+    @BeforeEach
+    void init() {
+        Mockito.lenient().when(clock.millis()).thenReturn(0L);
+        availabilityIndex = new BookingAvailabilityIndex(bookingRepository, new ItemLockStripes(4),
+                Duration.ofMinutes(1), clock);
+        item = new Item();
+        item.setId(1L);
+
+        start = LocalDateTime.now().plusDays(10);
+        booking = new Booking();
+        booking.setId(1L);
+        booking.setItem(item);
+        booking.setState(BookingState.APPROVED);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(2));
+    }
+
+    @Test
+    void isFreeAndSlotsLoadedFromRepository() {
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(item.getId(),
+                        BookingAvailabilityIndex.OCCUPYING_STATES))
+                .thenReturn(List.of(booking));
+
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start.plusDays(1), start.plusDays(3)));
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start.minusDays(1), start.plusHours(1)));
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start.plusHours(1), start.plusHours(2)));
+        Assertions.assertTrue(availabilityIndex.isFree(item.getId(), start.minusDays(1), start));
+        Assertions.assertTrue(availabilityIndex.isFree(item.getId(), start.plusDays(2), start.plusDays(3)));
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findAllByItemIdAndStateIn(item.getId(), BookingAvailabilityIndex.OCCUPYING_STATES);
+    }
+
+    @Test
+    void overlappingStoredSlotsAreAllChecked() {
+        Booking inner = new Booking();
+        inner.setId(2L);
+        inner.setItem(item);
+        inner.setState(BookingState.WAITING);
+        inner.setStart(start.plusDays(1));
+        inner.setEnd(start.plusDays(2));
+        booking.setEnd(start.plusDays(9));
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(item.getId(),
+                        BookingAvailabilityIndex.OCCUPYING_STATES))
+                .thenReturn(List.of(booking, inner));
+
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start.plusDays(4), start.plusDays(5)));
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start.plusDays(8), start.plusDays(10)));
+        Assertions.assertTrue(availabilityIndex.isFree(item.getId(), start.plusDays(9), start.plusDays(10)));
+    }
+
+    @Test
+    void slotsAreLoadedOutsideMapLock() {
+        long sameBinItemId = item.getId() + 16;
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(item.getId(),
+                        BookingAvailabilityIndex.OCCUPYING_STATES))
+                .thenAnswer(invocation -> {
+                    availabilityIndex.isFree(sameBinItemId, start, start.plusDays(1));
+                    return List.of(booking);
+                });
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(sameBinItemId,
+                        BookingAvailabilityIndex.OCCUPYING_STATES))
+                .thenReturn(Collections.emptyList());
+
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+        Assertions.assertTrue(availabilityIndex.isFree(sameBinItemId, start, start.plusDays(1)));
+    }
+
+    @Test
+    void removeDuringLoadIsAppliedToLoadedSlots() throws InterruptedException {
+        Thread rejecter = new Thread(() -> availabilityIndex.remove(booking));
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(item.getId(),
+                        BookingAvailabilityIndex.OCCUPYING_STATES))
+                .thenAnswer(invocation -> {
+                    // the rejection commits after this read and waits for the slots to be installed
+                    rejecter.start();
+                    rejecter.join(100);
+                    Assertions.assertTrue(rejecter.isAlive());
+                    return List.of(booking);
+                });
+
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+        rejecter.join();
+
+        Assertions.assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+    }
+
+    @Test
+    void idleItemsAreDroppedAndLoadedAgain() {
+        long otherItemId = item.getId() + 1;
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(Mockito.anyLong(),
+                        Mockito.eq(BookingAvailabilityIndex.OCCUPYING_STATES)))
+                .thenReturn(Collections.emptyList());
+        availabilityIndex.isFree(item.getId(), start, start.plusDays(1));
+        Mockito.when(clock.millis()).thenReturn(30_000L);
+        availabilityIndex.isFree(otherItemId, start, start.plusDays(1));
+
+        Mockito.when(clock.millis()).thenReturn(60_000L);
+        availabilityIndex.isFree(otherItemId + 1, start, start.plusDays(1));
+        Assertions.assertEquals(2, availabilityIndex.size());
+        availabilityIndex.isFree(item.getId(), start, start.plusDays(1));
+
+        Mockito.verify(bookingRepository, Mockito.times(2))
+                .findAllByItemIdAndStateIn(item.getId(), BookingAvailabilityIndex.OCCUPYING_STATES);
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findAllByItemIdAndStateIn(otherItemId, BookingAvailabilityIndex.OCCUPYING_STATES);
+    }
+
+    @Test
+    void addAndRemove() {
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(item.getId(),
+                        BookingAvailabilityIndex.OCCUPYING_STATES))
+                .thenReturn(Collections.emptyList());
+
+        Assertions.assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+        availabilityIndex.add(booking);
+        Assertions.assertFalse(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+        availabilityIndex.remove(booking);
+        Assertions.assertTrue(availabilityIndex.isFree(item.getId(), start, start.plusDays(1)));
+    }
+
+    @Test
+    void removeBookingReadBackWithTruncatedStart() {
+        Mockito.when(bookingRepository.findAllByItemIdAndStateIn(item.getId(),
+                        BookingAvailabilityIndex.OCCUPYING_STATES))
+                .thenReturn(Collections.emptyList());
+        booking.setStart(start.withNano(123_456_789));
+        availabilityIndex.add(booking);
+
+        Booking readBack = new Booking();
+        readBack.setId(booking.getId());
+        readBack.setItem(item);
+        readBack.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        readBack.setEnd(booking.getEnd());
+        availabilityIndex.remove(readBack);
+
+        Assertions.assertTrue(availabilityIndex.isFree(item.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void removeFromUnknownItem() {
+        availabilityIndex.remove(booking);
+
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+}
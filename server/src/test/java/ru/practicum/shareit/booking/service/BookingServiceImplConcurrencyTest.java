@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingServiceImplConcurrencyTest {
+    private static final int THREADS = 16;
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void onlyOneOfCompetingOverlappingBookingsWins() throws Exception {
+        Item item = itemRepository.save(newItem(userRepository.save(newUser("owner"))));
+        List<User> bookers = saveBookers();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Future<Boolean>> results = runConcurrently(bookers, i -> BookingDto.builder()
+                .itemId(item.getId())
+                .start(start.plusHours(i))
+                .end(start.plusDays(1).plusHours(i))
+                .build());
+
+        long succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        Assertions.assertEquals(1, succeeded);
+        Assertions.assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void bookingsForDifferentItemsAllWin() throws Exception {
+        User owner = userRepository.save(newUser("owner"));
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            items.add(itemRepository.save(newItem(owner)));
+        }
+        List<User> bookers = saveBookers();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<Future<Boolean>> results = runConcurrently(bookers, i -> BookingDto.builder()
+                .itemId(items.get(i).getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+
+        for (Future<Boolean> result : results) {
+            Assertions.assertTrue(result.get());
+        }
+        Assertions.assertEquals(THREADS, bookingRepository.count());
+    }
+
+    private List<Future<Boolean>> runConcurrently(List<User> bookers, IntFunction<BookingDto> bookingFactory)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                long bookerId = bookers.get(i).getId();
+                BookingDto bookingDto = bookingFactory.apply(i);
+                Callable<Boolean> task = () -> {
+                    startGate.await();
+                    try {
+                        bookingService.createBooking(bookerId, bookingDto);
+                        return true;
+                    } catch (BookingOverlapException e) {
+                        return false;
+                    }
+                };
+                results.add(executor.submit(task));
+            }
+            startGate.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        return results;
+    }
+
+    private List<User> saveBookers() {
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(newUser("booker" + i)));
+        }
+        return bookers;
+    }
+
+    private User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    private Item newItem(User owner) {
+        Item item = new Item();
+        item.setOwner(owner);
+        item.setName("PC");
+        item.setDescription("GamingPC");
+        item.setAvailable(true);
+        return item;
+    }
+}
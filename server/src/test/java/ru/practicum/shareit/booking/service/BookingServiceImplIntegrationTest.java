@@ -8,9 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
+import ru.practicum.shareit.booking.exceptions.InCorrectBookingException;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -19,11 +23,9 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 
-@Transactional
 @SpringBootTest
 @AutoConfigureTestDatabase
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -91,19 +93,122 @@ class BookingServiceImplIntegrationTest {
     }
 
     @Test
-    void acceptOrDeclineBooking() {
+    void createBookingAndPeriodOverlaps() {
         User firstSavedUser = userRepository.save(firstUser);
         User secondSavedUser = userRepository.save(secondUser);
+        User thirdSavedUser = userRepository.save(thirdUser);
+        firstItem.setOwner(firstSavedUser);
+        Item firstSavedItem = itemRepository.save(firstItem);
+        bookingDto.setItemId(firstSavedItem.getId());
+        bookingService.createBooking(secondSavedUser.getId(), bookingDto);
+        BookingDto overlapping = BookingDto.builder()
+                .itemId(firstSavedItem.getId())
+                .start(bookingDto.getStart().plusDays(1))
+                .end(bookingDto.getEnd().plusDays(1))
+                .build();
+
+        Assertions.assertThrows(BookingOverlapException.class, () -> bookingService.createBooking(
+                thirdSavedUser.getId(), overlapping));
+    }
+
+    @Test
+    void createBookingAfterOverlappingBookingRejected() {
+        User firstSavedUser = userRepository.save(firstUser);
+        User secondSavedUser = userRepository.save(secondUser);
+        User thirdSavedUser = userRepository.save(thirdUser);
         firstItem.setOwner(firstSavedUser);
         Item firstSavedItem = itemRepository.save(firstItem);
         bookingDto.setItemId(firstSavedItem.getId());
         BookingDto booking = bookingService.createBooking(secondSavedUser.getId(), bookingDto);
+        bookingService.acceptOrDeclineBooking(firstSavedUser.getId(), booking.getId(), false);
+
+        Assertions.assertEquals(BookingState.WAITING,
+                bookingService.createBooking(thirdSavedUser.getId(), bookingDto).getStatus());
+    }
+
+    @Test
+    void rejectedBookingCannotBeApprovedOnceItsPeriodIsTaken() {
+        User firstSavedUser = userRepository.save(firstUser);
+        User secondSavedUser = userRepository.save(secondUser);
+        User thirdSavedUser = userRepository.save(thirdUser);
+        firstItem.setOwner(firstSavedUser);
+        Item firstSavedItem = itemRepository.save(firstItem);
+        bookingDto.setItemId(firstSavedItem.getId());
+        BookingDto rejected = bookingService.createBooking(secondSavedUser.getId(), bookingDto);
+        bookingService.acceptOrDeclineBooking(firstSavedUser.getId(), rejected.getId(), false);
+        bookingService.createBooking(thirdSavedUser.getId(), bookingDto);
+
+        Assertions.assertThrows(InCorrectBookingException.class, () -> bookingService
+                .acceptOrDeclineBooking(firstSavedUser.getId(), rejected.getId(), true));
+        Assertions.assertEquals(List.of(BookingDecisionResult.builder()
+                        .bookingId(rejected.getId())
+                        .error("Невозможно подтвердить отклоненное бронирование")
+                        .build()),
+                bookingService.acceptOrDeclineBookings(firstSavedUser.getId(), List.of(rejected.getId()), true));
+    }
+
+    @Test
+    void acceptOrDeclineBooking() {
+        User firstSavedUser = userRepository.save(firstUser);
+        User secondSavedUser = userRepository.save(secondUser);
+        firstItem.setOwner(firstSavedUser);
+        Item firstSavedItem = itemRepository.save(firstItem);
+        bookingDto.setItemId(firstSavedItem.getId());
+        long bookingId = bookingService.createBooking(secondSavedUser.getId(), bookingDto).getId();
+        // read back: the database keeps the times to microseconds
+        BookingDto booking = bookingService.getBookingForOwnerOrBooker(secondSavedUser.getId(), bookingId);
         BookingDto actual = bookingService.acceptOrDeclineBooking(
                 firstSavedUser.getId(), booking.getId(), true);
         booking.setStatus(BookingState.APPROVED);
         Assertions.assertEquals(booking, actual);
     }
 
+    @Test
+    void acceptOrDeclineBookings() {
+        User firstSavedUser = userRepository.save(firstUser);
+        User secondSavedUser = userRepository.save(secondUser);
+        User thirdSavedUser = userRepository.save(thirdUser);
+        firstItem.setOwner(firstSavedUser);
+        Item firstSavedItem = itemRepository.save(firstItem);
+        Item secondItem = new Item();
+        secondItem.setOwner(thirdSavedUser);
+        secondItem.setAvailable(true);
+        secondItem.setDescription("Beer");
+        secondItem.setName("Waizen beer");
+        Item secondSavedItem = itemRepository.save(secondItem);
+        bookingDto.setItemId(firstSavedItem.getId());
+        long waitingId = bookingService.createBooking(secondSavedUser.getId(), bookingDto).getId();
+        BookingDto waiting = bookingService.getBookingForOwnerOrBooker(secondSavedUser.getId(), waitingId);
+        BookingDto approved = bookingService.createBooking(secondSavedUser.getId(), BookingDto.builder()
+                .itemId(firstSavedItem.getId())
+                .start(bookingDto.getEnd().plusDays(1))
+                .end(bookingDto.getEnd().plusDays(2))
+                .build());
+        bookingService.acceptOrDeclineBooking(firstSavedUser.getId(), approved.getId(), true);
+        BookingDto foreign = bookingService.createBooking(secondSavedUser.getId(), BookingDto.builder()
+                .itemId(secondSavedItem.getId())
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd())
+                .build());
+
+        List<BookingDecisionResult> results = bookingService.acceptOrDeclineBookings(firstSavedUser.getId(),
+                List.of(waiting.getId(), approved.getId(), foreign.getId(), 999L, waiting.getId()), false);
+
+        waiting.setStatus(BookingState.REJECTED);
+        Assertions.assertEquals(List.of(
+                BookingDecisionResult.builder().bookingId(waiting.getId()).booking(waiting).build(),
+                BookingDecisionResult.builder().bookingId(approved.getId())
+                        .error("Невозможно подтвердить подтвержденное бронирование").build(),
+                BookingDecisionResult.builder().bookingId(foreign.getId())
+                        .error("Только владелец вещи может подтверждать бронирование.").build(),
+                BookingDecisionResult.builder().bookingId(999L)
+                        .error("Такого бронирования не существует").build()), results);
+        Assertions.assertEquals(BookingState.WAITING,
+                bookingService.getBookingForOwnerOrBooker(thirdSavedUser.getId(), foreign.getId()).getStatus());
+        Assertions.assertEquals(BookingState.WAITING,
+                bookingService.createBooking(thirdSavedUser.getId(), bookingDto).getStatus());
+    }
+
     @Test
     void getBookingForOwnerOrBooker() {
         User firstSavedUser = userRepository.save(firstUser);
@@ -138,4 +243,51 @@ class BookingServiceImplIntegrationTest {
         Assertions.assertEquals(bookings, bookingService.getAllBookingsForUser(
                 secondUser.getId(), "ALL", false, 0, 2));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllBookingsForUserAfterCursor() {
+        User firstSavedUser = userRepository.save(firstUser);
+        User secondSavedUser = userRepository.save(secondUser);
+        firstItem.setOwner(firstSavedUser);
+        Item firstSavedItem = itemRepository.save(firstItem);
+        bookingDto.setItemId(firstSavedItem.getId());
+        bookingService.createBooking(secondSavedUser.getId(), bookingDto);
+        bookingService.createBooking(secondSavedUser.getId(), BookingDto.builder()
+                .itemId(firstSavedItem.getId())
+                .start(bookingDto.getEnd().plusDays(1))
+                .end(bookingDto.getEnd().plusDays(2))
+                .build());
+        List<BookingDto> bookings = List.copyOf(bookingService.getAllBookingsForUser(
+                secondSavedUser.getId(), "ALL", false, 0, 2));
+        BookingDto earlier = bookings.get(1);
+        String cursor = BookingCursor.of(bookings.get(0)).encode();
+
+        Assertions.assertEquals(List.of(earlier), bookingService.getAllBookingsForUserAfterCursor(
+                secondSavedUser.getId(), "ALL", false, cursor, 2));
+        Assertions.assertEquals(List.of(earlier), bookingService.getAllBookingsForUserAfterCursor(
+                firstSavedUser.getId(), "WAITING", true, cursor, 2));
+        Assertions.assertEquals(List.of(), bookingService.getAllBookingsForUserAfterCursor(
+                firstSavedUser.getId(), "PAST", true, cursor, 2));
+        Assertions.assertThrows(InCorrectBookingException.class, () -> bookingService
+                .getAllBookingsForUserAfterCursor(firstSavedUser.getId(), "ALL", true, "broken", 2));
+    }
+
+    @Test
+    void cursorOfBookingWithNanosecondStartSkipsThatBooking() {
+        User firstSavedUser = userRepository.save(firstUser);
+        User secondSavedUser = userRepository.save(secondUser);
+        firstItem.setOwner(firstSavedUser);
+        Item firstSavedItem = itemRepository.save(firstItem);
+        bookingDto.setItemId(firstSavedItem.getId());
+        bookingDto.setStart(bookingDto.getStart().withNano(123_456_400));
+        BookingDto savedBooking = bookingService.createBooking(secondSavedUser.getId(), bookingDto);
+        String cursor = BookingCursor.of(savedBooking).encode();
+        String unroundedCursor = new BookingCursor(savedBooking.getStart(), savedBooking.getId()).encode();
+
+        Assertions.assertEquals(bookingDto.getStart(), savedBooking.getStart());
+        Assertions.assertEquals(List.of(), bookingService.getAllBookingsForUserAfterCursor(
+                secondSavedUser.getId(), "ALL", false, cursor, 2));
+        Assertions.assertEquals(List.of(), bookingService.getAllBookingsForUserAfterCursor(
+                secondSavedUser.getId(), "ALL", false, unroundedCursor, 2));
+    }
+}
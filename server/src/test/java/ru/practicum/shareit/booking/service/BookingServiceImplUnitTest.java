@@ -7,12 +7,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.enums.BookingState;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
 import ru.practicum.shareit.booking.exceptions.InCorrectBookingException;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -24,6 +26,7 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -41,7 +44,13 @@ class BookingServiceImplUnitTest {
     @Mock
     UserRepository userRepository;
     @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
     ItemRepository itemRepository;
+    @Mock
+    BookingAvailabilityIndex availabilityIndex;
+    @Spy
+    ItemLockStripes itemLockStripes = new ItemLockStripes(4);
     User firstUser;
     User secondUser;
     User thirdUser;
@@ -145,6 +154,10 @@ class BookingServiceImplUnitTest {
         Mockito.when(itemRepository.findById(lastSecondBooking.getId()))
                 .thenReturn(Optional.of(firstItem));
 
+        Mockito.when(availabilityIndex.isFree(firstItem.getId(), lastSecondBooking.getStart(),
+                        lastSecondBooking.getEnd()))
+                .thenReturn(true);
+
         lastSecondBooking.setState(BookingState.WAITING);
 
         Mockito.when(bookingRepository.save(lastSecondBooking))
@@ -153,6 +166,24 @@ class BookingServiceImplUnitTest {
         Assertions.assertEquals(BookingMapper.mapToBookingDto(bookingAfterSave),
                 bookingService.createBooking(secondUser.getId(), bookingDto));
         Mockito.verify(bookingRepository, Mockito.times(1)).save(lastSecondBooking);
+        Mockito.verify(availabilityIndex, Mockito.times(1)).add(bookingAfterSave);
+    }
+
+    @Test
+    void createBookingAndPeriodOverlaps() {
+        BookingDto bookingDto = BookingMapper.mapToBookingDto(lastSecondBooking);
+
+        Mockito.when(userRepository.findById(secondUser.getId()))
+                .thenReturn(Optional.of(secondUser));
+        Mockito.when(itemRepository.findById(bookingDto.getItemId()))
+                .thenReturn(Optional.of(firstItem));
+        Mockito.when(availabilityIndex.isFree(firstItem.getId(), lastSecondBooking.getStart(),
+                        lastSecondBooking.getEnd()))
+                .thenReturn(false);
+
+        Assertions.assertThrows(BookingOverlapException.class, () -> bookingService.createBooking(
+                secondUser.getId(), bookingDto));
+        Mockito.verify(bookingRepository, Mockito.times(0)).save(Mockito.any());
     }
 
     @Test
@@ -250,7 +281,7 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.save(nextSecondBooking))
                 .thenReturn(bookingAfterSave);
@@ -272,7 +303,7 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.save(nextSecondBooking))
                 .thenReturn(bookingAfterSave);
@@ -280,6 +311,7 @@ class BookingServiceImplUnitTest {
         Assertions.assertEquals(BookingMapper.mapToBookingDto(bookingAfterSave), bookingService.acceptOrDeclineBooking(
                 firstUser.getId(), nextSecondBooking.getId(), false));
         Mockito.verify(bookingRepository, Mockito.times(1)).save(nextSecondBooking);
+        Mockito.verify(availabilityIndex, Mockito.times(1)).remove(bookingAfterSave);
     }
 
     @Test
@@ -313,7 +345,7 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(false);
 
         Assertions.assertThrows(UserIdNotFoundException.class, () -> bookingService.acceptOrDeclineBooking(
@@ -334,12 +366,27 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
+                .thenReturn(true);
+
+        Assertions.assertThrows(InCorrectBookingException.class, () -> bookingService.acceptOrDeclineBooking(
+                firstUser.getId(), nextSecondBooking.getId(), true));
+        Mockito.verify(bookingRepository, Mockito.times(0)).save(nextSecondBooking);
+    }
+
+    @Test
+    void acceptOrDeclineBookingAndRejectedBooking() {
+        nextSecondBooking.setState(BookingState.REJECTED);
+
+        Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
+                .thenReturn(Optional.of(nextSecondBooking));
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
 
         Assertions.assertThrows(InCorrectBookingException.class, () -> bookingService.acceptOrDeclineBooking(
                 firstUser.getId(), nextSecondBooking.getId(), true));
         Mockito.verify(bookingRepository, Mockito.times(0)).save(nextSecondBooking);
+        Mockito.verifyNoInteractions(availabilityIndex);
     }
 
     @Test
@@ -354,7 +401,7 @@ class BookingServiceImplUnitTest {
 
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(secondUser.getId()))
+        Mockito.when(userExistenceCache.exists(secondUser.getId()))
                 .thenReturn(true);
 
         Assertions.assertThrows(BookingNotFoundException.class, () -> bookingService.acceptOrDeclineBooking(
@@ -366,7 +413,7 @@ class BookingServiceImplUnitTest {
     void getBookingForOwnerOrBooker() {
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
 
         Assertions.assertEquals(BookingMapper.mapToBookingDto(nextSecondBooking),
@@ -386,7 +433,7 @@ class BookingServiceImplUnitTest {
     void getBookingForOwnerOrBookerAndUserNotFound() {
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(false);
 
         Assertions.assertThrows(UserIdNotFoundException.class, () -> bookingService.getBookingForOwnerOrBooker(
@@ -397,7 +444,7 @@ class BookingServiceImplUnitTest {
     void getBookingForOwnerOrBookerAndNeitherOwnerNorBooker() {
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(thirdUser.getId()))
+        Mockito.when(userExistenceCache.exists(thirdUser.getId()))
                 .thenReturn(true);
 
         Assertions.assertThrows(BookingNotFoundException.class, () -> bookingService.getBookingForOwnerOrBooker(
@@ -409,7 +456,7 @@ class BookingServiceImplUnitTest {
         firstItem.setAvailable(false);
         Mockito.when(bookingRepository.findById(nextSecondBooking.getId()))
                 .thenReturn(Optional.of(nextSecondBooking));
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
 
         Assertions.assertThrows(ItemUnavailableException.class, () -> bookingService.getBookingForOwnerOrBooker(
@@ -421,7 +468,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(nextSecondBooking);
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getBookingListByOwnerId(firstUser.getId(), PageRequest.of(0, 2)))
                 .thenReturn(bookings);
@@ -437,7 +484,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(nextSecondBooking);
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllFutureBookingsByOwnerId(
                         Mockito.anyLong(), Mockito.any(), Mockito.any()))
@@ -453,7 +500,7 @@ class BookingServiceImplUnitTest {
     void getAllBookingsForUserAndItsOwnerAndStateIsCurrant() {
         List<Booking> bookings = new ArrayList<>();
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllCurrentBookingsByOwnerId(
                         Mockito.anyLong(), Mockito.any(), Mockito.any()))
@@ -469,7 +516,7 @@ class BookingServiceImplUnitTest {
     void getAllBookingsForUserAndItsOwnerAndStateIsPast() {
         List<Booking> bookings = new ArrayList<>();
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllPastBookingsByOwnerId(
                         Mockito.anyLong(), Mockito.any(), Mockito.any()))
@@ -486,7 +533,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(nextSecondBooking);
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllByItemOwnerIdAndStateOrderByStartDesc(
                         firstUser.getId(), BookingState.WAITING, PageRequest.of(0, 2)))
@@ -504,7 +551,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
 
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllByItemOwnerIdAndStateOrderByStartDesc(
                         firstUser.getId(), BookingState.REJECTED, PageRequest.of(0, 2)))
@@ -521,7 +568,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(nextSecondBooking);
 
-        Mockito.when(userRepository.existsById(secondUser.getId()))
+        Mockito.when(userExistenceCache.exists(secondUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getBookingListByBookerId(secondUser.getId(), PageRequest.of(0, 2)))
                 .thenReturn(bookings);
@@ -537,7 +584,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(nextSecondBooking);
 
-        Mockito.when(userRepository.existsById(secondUser.getId()))
+        Mockito.when(userExistenceCache.exists(secondUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllFutureBookingsByBookerId(
                         Mockito.anyLong(), Mockito.any(), Mockito.any()))
@@ -553,7 +600,7 @@ class BookingServiceImplUnitTest {
     void getAllBookingsForUserAndItsBookerAndStateIsCurrant() {
         List<Booking> bookings = new ArrayList<>();
 
-        Mockito.when(userRepository.existsById(secondUser.getId()))
+        Mockito.when(userExistenceCache.exists(secondUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllCurrentBookingsByBookerId(
                         Mockito.anyLong(), Mockito.any(), Mockito.any()))
@@ -569,7 +616,7 @@ class BookingServiceImplUnitTest {
     void getAllBookingsForUserAndItsBookerAndStateIsPast() {
         List<Booking> bookings = new ArrayList<>();
 
-        Mockito.when(userRepository.existsById(secondUser.getId()))
+        Mockito.when(userExistenceCache.exists(secondUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllPastBookingsByBookerId(
                         Mockito.anyLong(), Mockito.any(), Mockito.any()))
@@ -586,7 +633,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(nextSecondBooking);
 
-        Mockito.when(userRepository.existsById(secondUser.getId()))
+        Mockito.when(userExistenceCache.exists(secondUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllByBookerIdAndStateOrderByStartDesc(
                         secondUser.getId(), BookingState.WAITING, PageRequest.of(0, 2)))
@@ -603,7 +650,7 @@ class BookingServiceImplUnitTest {
     void getAllBookingsForUserAndItsBookerAndStateIsRejected() {
         List<Booking> bookings = new ArrayList<>();
 
-        Mockito.when(userRepository.existsById(secondUser.getId()))
+        Mockito.when(userExistenceCache.exists(secondUser.getId()))
                 .thenReturn(true);
         Mockito.when(bookingRepository.getAllByBookerIdAndStateOrderByStartDesc(
                         secondUser.getId(), BookingState.REJECTED, PageRequest.of(0, 2)))
@@ -620,7 +667,7 @@ class BookingServiceImplUnitTest {
         List<Booking> bookings = new ArrayList<>();
         bookings.add(nextSecondBooking);
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(false);
 
         Assertions.assertThrows(UserIdNotFoundException.class, () -> bookingService.getAllBookingsForUser(
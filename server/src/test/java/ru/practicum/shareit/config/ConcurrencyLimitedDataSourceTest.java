@@ -0,0 +1,103 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    DataSource target;
+    @Mock
+    Connection firstConnection;
+    @Mock
+    Connection secondConnection;
+    ConcurrencyLimitedDataSource dataSource;
+
+    @BeforeEach
+    void init() {
+        dataSource = new ConcurrencyLimitedDataSource(target, 1, 100);
+    }
+
+    @Test
+    void closingConnectionReturnsPermit() throws SQLException {
+        Mockito.when(target.getConnection())
+                .thenReturn(firstConnection, secondConnection);
+
+        Connection connection = dataSource.getConnection();
+        Assertions.assertEquals(0, dataSource.availablePermits());
+        connection.close();
+        connection.close();
+
+        Assertions.assertEquals(1, dataSource.availablePermits());
+        Mockito.verify(firstConnection, Mockito.times(2)).close();
+        dataSource.getConnection();
+        Assertions.assertEquals(0, dataSource.availablePermits());
+    }
+
+    @Test
+    void waiterGetsConnectionOnceAnotherIsClosed() throws Exception {
+        Mockito.when(target.getConnection())
+                .thenReturn(firstConnection, secondConnection);
+        dataSource = new ConcurrencyLimitedDataSource(target, 1, 5_000);
+        Connection held = dataSource.getConnection();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        Assertions.assertFalse(waiter.isDone());
+        held.close();
+
+        Assertions.assertNotNull(waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waitingLongerThanTimeoutFails() throws SQLException {
+        Mockito.when(target.getConnection())
+                .thenReturn(firstConnection);
+        dataSource.getConnection();
+
+        Assertions.assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        Mockito.verify(target, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    void failedConnectionReturnsPermit() throws SQLException {
+        Mockito.when(target.getConnection())
+                .thenThrow(new SQLException("database is down"));
+
+        Assertions.assertThrows(SQLException.class, () -> dataSource.getConnection());
+        Assertions.assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void closingDataSourceClosesPool() throws IOException {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:limited-pool");
+        pool.setMaximumPoolSize(4);
+
+        new ConcurrencyLimitedDataSource(pool, 1, 100).close();
+
+        Assertions.assertTrue(pool.isClosed());
+        Assertions.assertEquals(4, VirtualThreadConfig.maximumPoolSize(pool));
+    }
+}
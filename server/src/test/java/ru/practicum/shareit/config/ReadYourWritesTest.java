@@ -0,0 +1,87 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+
+class ReadYourWritesTest {
+
+    Clock clock = Mockito.mock(Clock.class);
+    ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), clock);
+
+    @BeforeEach
+    void init() {
+        Mockito.when(clock.millis()).thenReturn(0L);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        readYourWrites.end();
+    }
+
+    @Test
+    void writerReadsFromPrimaryUntilWindowPasses() {
+        readYourWrites.begin(1L);
+        Assertions.assertFalse(readYourWrites.readsFromPrimary());
+        readYourWrites.wrote();
+        Assertions.assertTrue(readYourWrites.readsFromPrimary());
+        Mockito.when(clock.millis()).thenReturn(1000L);
+        readYourWrites.end();
+
+        readYourWrites.begin(1L);
+        Mockito.when(clock.millis()).thenReturn(5999L);
+        Assertions.assertTrue(readYourWrites.readsFromPrimary());
+        readYourWrites.end();
+
+        readYourWrites.begin(1L);
+        Mockito.when(clock.millis()).thenReturn(6000L);
+        Assertions.assertFalse(readYourWrites.readsFromPrimary());
+    }
+
+    @Test
+    void otherUsersAndAnonymousRequestsReadFromReplica() {
+        readYourWrites.begin(1L);
+        readYourWrites.wrote();
+        readYourWrites.end();
+
+        readYourWrites.begin(2L);
+        Assertions.assertFalse(readYourWrites.readsFromPrimary());
+        readYourWrites.end();
+        readYourWrites.begin(null);
+        Assertions.assertFalse(readYourWrites.readsFromPrimary());
+        readYourWrites.end();
+
+        Assertions.assertFalse(readYourWrites.readsFromPrimary());
+    }
+
+    @Test
+    void writeForAnotherUserKeepsThatUserOnPrimary() {
+        readYourWrites.begin(null);
+        readYourWrites.wrote(3L);
+        readYourWrites.end();
+
+        readYourWrites.begin(3L);
+        Assertions.assertTrue(readYourWrites.readsFromPrimary());
+        readYourWrites.end();
+        readYourWrites.begin(4L);
+        Assertions.assertFalse(readYourWrites.readsFromPrimary());
+    }
+
+    @Test
+    void zeroWindowOnlyCoversTheWritingRequest() {
+        ReadYourWrites disabled = new ReadYourWrites(Duration.ZERO, clock);
+        disabled.begin(1L);
+        disabled.wrote();
+        Assertions.assertTrue(disabled.readsFromPrimary());
+        disabled.end();
+
+        disabled.begin(1L);
+        Assertions.assertFalse(disabled.readsFromPrimary());
+        disabled.end();
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.config;
+
+import com.jayway.jsonpath.JsonPath;
+import lombok.SneakyThrows;
+import org.flywaydb.core.Flyway;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the server on two H2 databases standing in for a primary and its replica. Nothing replicates between
+ * them, so every row shows which of the two a request read from.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingDataSourceTest.PRIMARY_URL,
+        "shareit.datasource.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "shareit.datasource.replica.read-your-writes=1m"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReplicaRoutingDataSourceTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    static JdbcTemplate primary = new JdbcTemplate(h2(PRIMARY_URL));
+    static JdbcTemplate replica = new JdbcTemplate(h2(REPLICA_URL));
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    DataSource dataSource;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(h2(REPLICA_URL))
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @SneakyThrows
+    @Test
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        Assertions.assertTrue(dataSource instanceof ReplicaRoutingDataSource);
+        replica.update("INSERT INTO users (id, name, email) VALUES (100, 'replica', 'replica@mail.ru')");
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", Matchers.hasItem("replica")));
+        mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"primary\",\"email\":\"primary@mail.ru\"}"))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(1, count(primary, "SELECT COUNT(*) FROM users WHERE email = 'primary@mail.ru'"));
+        Assertions.assertEquals(0, count(replica, "SELECT COUNT(*) FROM users WHERE email = 'primary@mail.ru'"));
+        Assertions.assertEquals(0, count(primary, "SELECT COUNT(*) FROM users WHERE id = 100"));
+    }
+
+    @SneakyThrows
+    @Test
+    void writerReadsOwnWritesWhileOthersReadReplica() {
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("INSERT INTO users (id, name, email) VALUES (200, 'writer', 'writer@mail.ru')");
+            database.update("INSERT INTO users (id, name, email) VALUES (201, 'reader', 'reader@mail.ru')");
+        }
+
+        mockMvc.perform(post("/requests")
+                        .header("X-Sharer-User-Id", 200)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Need a PC\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/requests").header("X-Sharer-User-Id", 200))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].description").value("Need a PC"));
+        mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", 201)
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        Assertions.assertEquals(1, count(primary, "SELECT COUNT(*) FROM requests WHERE requestor_id = 200"));
+    }
+
+    @SneakyThrows
+    @Test
+    void createdUserReadsOwnAccount() {
+        String created = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"newcomer\",\"email\":\"newcomer@mail.ru\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = JsonPath.parse(created).read("$.id", Long.class);
+
+        mockMvc.perform(get("/users/{id}", id).header("X-Sharer-User-Id", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("newcomer"));
+        Assertions.assertEquals(0, count(replica, "SELECT COUNT(*) FROM users WHERE email = 'newcomer@mail.ru'"));
+    }
+
+    @SneakyThrows
+    @Test
+    void importFindsOwnerMissingOnReplica() {
+        primary.update("INSERT INTO users (id, name, email) VALUES (300, 'importer', 'importer@mail.ru')");
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", 300)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").isNumber())
+                .andExpect(jsonPath("$.error").doesNotExist());
+        Assertions.assertEquals(1, count(primary, "SELECT COUNT(*) FROM items WHERE owner_id = 300"));
+    }
+
+    private static int count(JdbcTemplate database, String sql) {
+        Integer count = database.queryForObject(sql, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static DataSource h2(String url) {
+        return new DriverManagerDataSource(url, "test", "test");
+    }
+}
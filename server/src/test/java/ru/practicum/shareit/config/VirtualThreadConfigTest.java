@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+
+@SpringBootTest(properties = {"shareit.virtual-threads.enabled=true", "spring.datasource.hikari.maximum-pool-size=3"})
+class VirtualThreadConfigTest {
+
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void databaseAccessIsLimitedToPoolSizeAndPermitsAreReturned() {
+        Assertions.assertTrue(dataSource instanceof ConcurrencyLimitedDataSource);
+
+        userRepository.count();
+
+        Assertions.assertEquals(3, ((ConcurrencyLimitedDataSource) dataSource).availablePermits());
+    }
+}
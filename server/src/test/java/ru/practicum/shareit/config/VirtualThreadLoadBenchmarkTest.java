@@ -0,0 +1,84 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps 1000 requests in flight against a running server for a fixed time and reports throughput,
+ * once on Tomcat's thread pool and once with virtual threads enabled. Virtual threads need Java 21+.
+ * Runs only on demand: {@code mvn test -Dtest=VirtualThreadLoadBenchmarkTest -Dbenchmark.load=true}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark.load", matches = "true")
+class VirtualThreadLoadBenchmarkTest {
+    private static final int CLIENTS = 1000;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void throughputWithThousandConcurrentClients(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads,
+                        "--shareit.virtual-threads.enabled=" + virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .build();
+            HttpResponse<String> created = httpClient.send(HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"maks\",\"email\":\"maks220@mail.ru\"}"))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            Assertions.assertEquals(200, created.statusCode());
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items?from=0&size=10"))
+                    .header("X-Sharer-User-Id", "1")
+                    .GET()
+                    .build();
+
+            load(httpClient, request, WARM_UP);
+            long[] result = load(httpClient, request, MEASUREMENT);
+
+            log.info("Virtual threads {}: {} requests/s with {} concurrent clients, {} errors",
+                    virtualThreads, result[0] / MEASUREMENT.toSeconds(), CLIENTS, result[1]);
+        }
+    }
+
+    private long[] load(HttpClient httpClient, HttpRequest request, Duration duration) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CLIENTS);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error == null && response.statusCode() == 200) {
+                            completed.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                        inFlight.release();
+                    });
+        }
+        inFlight.tryAcquire(CLIENTS, 30, TimeUnit.SECONDS);
+        return new long[]{completed.get(), failed.get()};
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingDtoForUser;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes and decodes typical gateway-server payloads as JSON and as Smile and reports size and time per
+ * operation, measured after a warm-up on the same mappers the application uses.
+ * Runs only on demand: {@code mvn test -Dtest=WireFormatBenchmarkTest -Dbenchmark.wire-format=true}
+ */
+@Slf4j
+@JsonTest
+@EnabledIfSystemProperty(named = "benchmark.wire-format", matches = "true")
+class WireFormatBenchmarkTest {
+    private static final int WARM_UP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Autowired
+    Jackson2ObjectMapperBuilder objectMapperBuilder;
+    ObjectMapper jsonMapper;
+    ObjectMapper smileMapper;
+
+    @BeforeEach
+    void init() {
+        jsonMapper = objectMapperBuilder.build();
+        smileMapper = objectMapperBuilder.createXmlMapper(false).factory(new SmileFactory()).build();
+    }
+
+    @Test
+    void compareJsonAndSmile() throws IOException {
+        measure("BookingDto", booking(1));
+        measure("ItemDto", item(1, 10));
+        measure("ItemRequestDto", ItemRequestDto.builder()
+                .id(1L)
+                .description("Need a cordless drill for the weekend")
+                .created(LocalDateTime.now())
+                .items(IntStream.range(0, 10).mapToObj(i -> item(i, 3)).collect(Collectors.toList()))
+                .build());
+    }
+
+    private void measure(String name, Object payload) throws IOException {
+        byte[] json = jsonMapper.writeValueAsBytes(payload);
+        byte[] smile = smileMapper.writeValueAsBytes(payload);
+        Assertions.assertEquals(jsonMapper.readTree(json), smileMapper.readTree(smile));
+
+        run(jsonMapper, payload, json, WARM_UP);
+        run(smileMapper, payload, smile, WARM_UP);
+        long[] jsonNanos = run(jsonMapper, payload, json, ITERATIONS);
+        long[] smileNanos = run(smileMapper, payload, smile, ITERATIONS);
+
+        log.info("{}: JSON {} bytes, encode {} ns/op, decode {} ns/op; Smile {} bytes, encode {} ns/op, decode {} ns/op",
+                name, json.length, jsonNanos[0] / ITERATIONS, jsonNanos[1] / ITERATIONS,
+                smile.length, smileNanos[0] / ITERATIONS, smileNanos[1] / ITERATIONS);
+    }
+
+    /**
+     * Decoding reads a tree rather than the DTO: response DTOs such as {@link BookingDtoForUser} have no creator
+     * and are never read back in the application.
+     */
+    private long[] run(ObjectMapper mapper, Object payload, byte[] encoded, int iterations) throws IOException {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.writeValueAsBytes(payload).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.readTree(encoded).size();
+        }
+        long decodeNanos = System.nanoTime() - start;
+        Assertions.assertNotEquals(Long.MIN_VALUE, sink);
+        return new long[]{encodeNanos, decodeNanos};
+    }
+
+    private static BookingDto booking(long id) {
+        return BookingDto.builder()
+                .id(id)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(3))
+                .itemId(1L)
+                .item(BookingDtoForItem.builder().id(1L).name("Drill").build())
+                .booker(BookingDtoForUser.builder().id(2L).build())
+                .status(BookingState.APPROVED)
+                .build();
+    }
+
+    private static ItemDto item(long id, int comments) {
+        return ItemDto.builder()
+                .id(id)
+                .name("Drill " + id)
+                .description("Cordless drill with two batteries and a case")
+                .available(true)
+                .lastBooking(BookingShort.builder().id(1L).bookerId(2L).build())
+                .nextBooking(BookingShort.builder().id(2L).bookerId(3L).build())
+                .comments(IntStream.range(0, comments)
+                        .mapToObj(i -> CommentDto.builder()
+                                .id((long) i)
+                                .text("Worked fine, battery lasted the whole day")
+                                .authorName("user" + i)
+                                .created(LocalDateTime.now())
+                                .build())
+                        .collect(Collectors.toList()))
+                .requestId(1L)
+                .build();
+    }
+}
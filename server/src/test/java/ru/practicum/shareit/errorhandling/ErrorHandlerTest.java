@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.booking.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
 import ru.practicum.shareit.booking.exceptions.InCorrectBookingException;
 import ru.practicum.shareit.booking.exceptions.InCorrectStatusException;
 import ru.practicum.shareit.item.exceptions.ItemIdNotFoundException;
@@ -76,4 +77,12 @@ class ErrorHandlerTest {
         Assertions.assertNotNull(expected);
         Assertions.assertEquals(expected.getMessage(), actual.getError());
     }
-}
\ No newline at end of file
+
+    @Test
+    void bookingOverlapHandler() {
+        var expected = new BookingOverlapException("Booking period overlaps");
+        var actual = errorHandler.bookingOverlapHandler(expected);
+        Assertions.assertNotNull(expected);
+        Assertions.assertEquals(expected.getMessage(), actual.getError());
+    }
+}
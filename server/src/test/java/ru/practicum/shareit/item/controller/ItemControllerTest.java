@@ -3,21 +3,26 @@ package ru.practicum.shareit.item.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -316,4 +321,110 @@ public class ItemControllerTest {
                         .name("Товар Пила")
                         .build()))));
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getItemWithMatchingETagReturnsNotModifiedTest() {
+        UserDto user = UserDto.builder()
+                .email("user@user.com")
+                .name("user")
+                .build();
+        mockMvc.perform(post("/users")
+                .contentType("application/json")
+                .content(objectMapper.writeValueAsString(user)));
+
+        ItemDto item = ItemDto.builder()
+                .available(true)
+                .description("Описание")
+                .name("Товар")
+                .build();
+        mockMvc.perform(post("/items")
+                .contentType("application/json")
+                .header("X-Sharer-User-Id", 1L)
+                .content(objectMapper.writeValueAsString(item)));
+
+        String eTag = mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().is(200))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(patch("/items/1")
+                .contentType("application/json")
+                .header("X-Sharer-User-Id", 1L)
+                .content(objectMapper.writeValueAsString(ItemDto.builder().name("Новый товар").build())));
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.name").value("Новый товар"));
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsFromNdjsonReportsEveryRecordTest() {
+        mockMvc.perform(post("/users")
+                .contentType("application/json")
+                .content(objectMapper.writeValueAsString(UserDto.builder()
+                        .email("user@user.com")
+                        .name("user")
+                        .build())));
+        String records = String.join("\n",
+                "{\"name\":\"Дрель\",\"description\":\"Аккумуляторная\",\"available\":true}",
+                "{\"name\":\"Лестница\",\"description\":\"Для сада\",\"available\":true,\"requestId\":99}",
+                "{\"name\":\"" + "x".repeat(300) + "\",\"description\":\"Слишком длинное имя\",\"available\":true}",
+                "{\"name\":\"Палатка\",\"description\":\"Двухместная\",\"available\":\"может быть\"}",
+                "{\"name\":\"Камера\",\"description\":\"Беззеркальная\",\"available\":false}");
+
+        String results = mockMvc.perform(post("/items/import")
+                        .contentType("application/x-ndjson")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(records))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> lines = List.of(results.split("\n"));
+        Assertions.assertEquals(5, lines.size());
+        Assertions.assertEquals(0, objectMapper.readTree(lines.get(0)).get("index").asInt());
+        Assertions.assertTrue(objectMapper.readTree(lines.get(0)).has("id"));
+        Assertions.assertEquals("requestId: \"99\" не найден", objectMapper.readTree(lines.get(1)).get("error").asText());
+        Assertions.assertTrue(objectMapper.readTree(lines.get(2)).has("error"));
+        Assertions.assertTrue(objectMapper.readTree(lines.get(3)).has("error"));
+        Assertions.assertEquals(4, objectMapper.readTree(lines.get(4)).get("index").asInt());
+        Assertions.assertTrue(objectMapper.readTree(lines.get(4)).has("id"));
+        mockMvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Дрель"))
+                .andExpect(jsonPath("$[1].name").value("Камера"));
+    }
+
+    @SneakyThrows
+    @Test
+    void importItemsFromJsonArrayForUnknownUserFailsEveryRecordTest() {
+        List<ItemDto> items = List.of(
+                ItemDto.builder().name("Дрель").description("Аккумуляторная").available(true).build(),
+                ItemDto.builder().name("Камера").description("Беззеркальная").available(true).build());
+
+        mockMvc.perform(post("/items/import")
+                        .contentType("application/json")
+                        .header("X-Sharer-User-Id", 42L)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].id").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("userId: \"42\" не найден"));
+    }
+}
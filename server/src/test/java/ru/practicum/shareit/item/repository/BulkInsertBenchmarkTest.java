@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compares inserting items with their bookings row by row and in JDBC batches.
+ * Runs only on request, against the test H2 database by default:
+ * {@code mvn test -Dtest=BulkInsertBenchmarkTest -Dbenchmark.bulk-insert=true}.
+ * In-memory H2 has no network round trip, so the gap is far wider on PostgreSQL, e.g. with
+ * {@code -Dspring.datasource.url=jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true
+ * -Dspring.datasource.driverClassName=org.postgresql.Driver -Dspring.datasource.username=postgres
+ * -Dspring.datasource.password=postgres}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark.bulk-insert", matches = "true")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class BulkInsertBenchmarkTest {
+    private static final int RUNS = 3;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 5_000})
+    void compareRowByRowAndBatchedInserts(int rows) {
+        User owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner" + rows + "@mail.ru");
+        User booker = new User();
+        booker.setName("booker");
+        booker.setEmail("booker" + rows + "@mail.ru");
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.flush();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        insert(rows, owner, booker, 1);
+        insert(rows, owner, booker, 50);
+        for (int batchSize : new int[]{1, 50}) {
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                insert(rows, owner, booker, batchSize);
+            }
+            log.info("Inserting {} items and {} bookings with batch size {}: {} ms, {} statements on average of {} runs",
+                    rows, rows, batchSize, (System.nanoTime() - start) / 1_000_000.0 / RUNS,
+                    statistics.getPrepareStatementCount() / RUNS, RUNS);
+        }
+    }
+
+    private void insert(int rows, User owner, User booker, int batchSize) {
+        entityManager.getEntityManager().unwrap(Session.class).setJdbcBatchSize(batchSize);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < rows; i++) {
+            Item item = new Item();
+            item.setOwner(owner);
+            item.setName("Drill " + i);
+            item.setDescription("Cordless drill");
+            item.setAvailable(true);
+            entityManager.persist(item);
+
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setState(BookingState.WAITING);
+            booking.setStart(start);
+            booking.setEnd(start.plusHours(1));
+            entityManager.persist(booking);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        owner = entityManager.find(User.class, owner.getId());
+        booker = entityManager.find(User.class, booker.getId());
+    }
+}
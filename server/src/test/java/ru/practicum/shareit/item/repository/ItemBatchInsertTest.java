@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemBatchInsertTest {
+    private static final int ITEMS = 200;
+
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    TestEntityManager entityManager;
+    Statistics statistics;
+    User owner;
+
+    @BeforeEach
+    void init() {
+        owner = new User();
+        owner.setName("maks");
+        owner.setEmail("maks220@mail.ru");
+        entityManager.persistAndFlush(owner);
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void saveAllSendsInsertsInBatches() {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setOwner(owner);
+            item.setName("PC" + i);
+            item.setDescription("GamingPC");
+            item.setAvailable(true);
+            items.add(item);
+        }
+
+        itemRepository.saveAll(items);
+        entityManager.flush();
+
+        Assertions.assertEquals(ITEMS, statistics.getEntityInsertCount());
+        // 4 sequence calls for blocks of 50 ids and 4 batches of 50 inserts
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 8,
+                () -> statistics.getPrepareStatementCount() + " statements for " + ITEMS + " inserts");
+    }
+
+    @Test
+    void idsAreAllocatedInBlocks() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Item item = new Item();
+            item.setOwner(owner);
+            item.setName("PC" + i);
+            item.setDescription("GamingPC");
+            item.setAvailable(true);
+            ids.add(itemRepository.save(item).getId());
+        }
+
+        Assertions.assertEquals(List.of(ids.get(0), ids.get(0) + 1, ids.get(0) + 2),
+                ids.stream().sorted().collect(Collectors.toList()));
+        Assertions.assertEquals(0, statistics.getEntityInsertCount());
+    }
+}
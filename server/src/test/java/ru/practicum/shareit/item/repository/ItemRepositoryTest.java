@@ -62,6 +62,18 @@ class ItemRepositoryTest {
         assertEquals(1, items.size());
     }
 
+    @Test
+    void searchByTrigram() {
+        userRepository.save(firstUser);
+        userRepository.save(secondUser);
+        itemRepository.save(firstItem);
+        itemRepository.save(secondItem);
+        List<Item> items = itemRepository.searchByTrigram("gaming", PageRequest.of(0, 2));
+
+        Assertions.assertEquals(List.of(firstItem), items);
+        assertEquals(0, itemRepository.searchByTrigram("beer", PageRequest.of(0, 2)).size());
+    }
+
     @Test
     void findAllByOwnerId() {
         User firstUserSaved = userRepository.save(firstUser);
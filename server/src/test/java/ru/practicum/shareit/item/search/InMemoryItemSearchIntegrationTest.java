@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+@SpringBootTest(properties = "shareit.item-search.mode=index")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class InMemoryItemSearchIntegrationTest {
+
+    private final ItemService itemService;
+    private final ItemSearch itemSearch;
+    private final UserRepository userRepository;
+
+    @Test
+    void searchSeesCreatedAndUpdatedItems() {
+        User user = new User();
+        user.setName("maks");
+        user.setEmail("maks220@mail.ru");
+        User savedUser = userRepository.save(user);
+        ItemDto created = itemService.createItem(savedUser.getId(), ItemDto.builder()
+                .name("PC")
+                .description("GamingPC")
+                .available(true)
+                .build());
+
+        Assertions.assertTrue(itemSearch instanceof InMemoryItemSearch);
+        Assertions.assertEquals(List.of(created), itemService.searchItem("gaming", 0, 10));
+
+        ItemDto updated = itemService.updateItem(savedUser.getId(), created.getId(), ItemDto.builder()
+                .description("Office PC")
+                .build());
+
+        Assertions.assertEquals(List.of(), itemService.searchItem("gaming", 0, 10));
+        Assertions.assertEquals(List.of(updated), itemService.searchItem("offi", 0, 10));
+    }
+}
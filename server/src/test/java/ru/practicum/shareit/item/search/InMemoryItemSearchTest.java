@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchTest {
+
+    @Mock
+    ItemRepository itemRepository;
+    InMemoryItemSearch itemSearch;
+    Item drill;
+    Item saw;
+    Item hiddenDrill;
+
+    @BeforeEach
+    void init() {
+        itemSearch = new InMemoryItemSearch(itemRepository, 2);
+
+        drill = newItem(1L, "Дрель", "Аккумуляторная дрель с набором сверл", true);
+        saw = newItem(2L, "Пила", "Пила для дрели не подходит, но режет доски", true);
+        hiddenDrill = newItem(3L, "Дрель ударная", "Сломана", false);
+    }
+
+    @Test
+    void searchLoadsRepositoryInBatchesOnce() {
+        Mockito.when(itemRepository.findAll(Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    Pageable pageable = invocation.getArgument(0);
+                    List<Item> all = List.of(drill, saw, hiddenDrill);
+                    int from = (int) pageable.getOffset();
+                    return new PageImpl<>(all.subList(from, Math.min(from + pageable.getPageSize(), all.size())),
+                            pageable, all.size());
+                });
+
+        itemSearch.search("дрель", PageRequest.of(0, 10));
+        itemSearch.search("пила", PageRequest.of(0, 10));
+
+        Mockito.verify(itemRepository, Mockito.times(2)).findAll(Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void searchByPrefixRanksNameAboveDescription() {
+        loadEmpty();
+        itemSearch.index(drill);
+        itemSearch.index(saw);
+        itemSearch.index(hiddenDrill);
+
+        Assertions.assertEquals(toDto(drill, saw), itemSearch.search("ДРЕЛ", PageRequest.of(0, 10)));
+        Assertions.assertEquals(toDto(saw), itemSearch.search("дрел доск", PageRequest.of(0, 10)));
+        Assertions.assertEquals(toDto(saw), itemSearch.search("дрел", PageRequest.of(1, 1)));
+        Assertions.assertEquals(List.of(), itemSearch.search("молоток", PageRequest.of(0, 10)));
+        Assertions.assertEquals(List.of(), itemSearch.search("  ", PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void indexReplacesPreviousVersion() {
+        loadEmpty();
+        itemSearch.index(drill);
+        drill.setName("Шуруповерт");
+        drill.setDescription("Быстрый");
+        itemSearch.index(drill);
+
+        Assertions.assertEquals(List.of(), itemSearch.search("дрель", PageRequest.of(0, 10)));
+        Assertions.assertEquals(toDto(drill), itemSearch.search("шуруп", PageRequest.of(0, 10)));
+    }
+
+    private void loadEmpty() {
+        Mockito.when(itemRepository.findAll(Mockito.any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+    }
+
+    private List<ItemDto> toDto(Item... items) {
+        return List.of(items).stream()
+                .map(ItemMapper::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    private Item newItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
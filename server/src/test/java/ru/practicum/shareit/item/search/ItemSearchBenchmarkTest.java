@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Compares LIKE, pg_trgm and tsvector search on a scratch PostgreSQL schema.
+ * Runs only when a database is given, e.g.
+ * {@code mvn test -Dtest=ItemSearchBenchmarkTest -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/postgres}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+class ItemSearchBenchmarkTest {
+    private static final String SCHEMA = "item_search_benchmark";
+    private static final String[] QUERIES = {"drill", "ladder", "camera"};
+    private static final int RUNS = 20;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.postgres.url"),
+                System.getProperty("benchmark.postgres.user", "postgres"),
+                System.getProperty("benchmark.postgres.password", "postgres"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100_000, 1_000_000, 10_000_000})
+    void compareSearchModes(int rows) {
+        String table = SCHEMA + ".items";
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, name VARCHAR(255), " +
+                "description VARCHAR(512), is_available VARCHAR(10))");
+        jdbcTemplate.update("INSERT INTO " + table + " SELECT g, " +
+                "(ARRAY['Drill','Ladder','Camera','Tent','Bike'])[1 + g % 5] || ' ' || md5(g::text), " +
+                "md5((g * 7)::text) || ' ' || (ARRAY['cordless','folding','mirrorless','family','mountain'])[1 + g % 5], " +
+                "CASE WHEN g % 10 = 0 THEN 'false' ELSE 'true' END " +
+                "FROM generate_series(1, ?) AS g", rows);
+
+        String like = "SELECT id FROM " + table + " WHERE UPPER(is_available) = 'TRUE' " +
+                "AND (UPPER(name) LIKE UPPER(CONCAT('%', ?, '%')) OR UPPER(description) LIKE UPPER(CONCAT('%', ?, '%'))) " +
+                "ORDER BY id LIMIT 20";
+        String trigram = "SELECT id FROM " + table + " WHERE UPPER(is_available) = 'TRUE' " +
+                "AND (name ILIKE CONCAT('%', ?, '%') OR description ILIKE CONCAT('%', ?, '%')) " +
+                "ORDER BY id LIMIT 20";
+        String tsvector = "SELECT id FROM " + table + " WHERE UPPER(is_available) = 'TRUE' " +
+                "AND to_tsvector('simple', name || ' ' || description) @@ plainto_tsquery('simple', ?) " +
+                "ORDER BY id LIMIT 20";
+
+        double likeMillis = measure(like, 2);
+        jdbcTemplate.execute("CREATE INDEX ON " + table + " USING GIN (name gin_trgm_ops)");
+        jdbcTemplate.execute("CREATE INDEX ON " + table + " USING GIN (description gin_trgm_ops)");
+        jdbcTemplate.execute("ANALYZE " + table);
+        double trigramMillis = measure(trigram, 2);
+        jdbcTemplate.execute("CREATE INDEX ON " + table +
+                " USING GIN (to_tsvector('simple', name || ' ' || description))");
+        jdbcTemplate.execute("ANALYZE " + table);
+        double tsvectorMillis = measure(tsvector, 1);
+
+        log.info("Item search on {} rows: LIKE {} ms, trigram {} ms, tsvector {} ms on average of {} runs",
+                rows, likeMillis, trigramMillis, tsvectorMillis, RUNS);
+    }
+
+    private double measure(String sql, int parameters) {
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            String text = QUERIES[i % QUERIES.length];
+            Object[] args = parameters == 2 ? new Object[]{text, text} : new Object[]{text};
+            jdbcTemplate.queryForList(sql, Long.class, args);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.transaction.Transactional;
+import java.util.List;
+
+@Transactional
+@SpringBootTest(properties = "shareit.item-search.mode=trigram")
+@AutoConfigureTestDatabase
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TrigramItemSearchIntegrationTest {
+
+    private final ItemService itemService;
+    private final ItemSearch itemSearch;
+    private final UserRepository userRepository;
+
+    @Test
+    void searchFallsBackToIlikeOnH2() {
+        User user = new User();
+        user.setName("maks");
+        user.setEmail("maks220@mail.ru");
+        User savedUser = userRepository.save(user);
+        ItemDto created = itemService.createItem(savedUser.getId(), ItemDto.builder()
+                .name("PC")
+                .description("GamingPC")
+                .available(true)
+                .build());
+        itemService.createItem(savedUser.getId(), ItemDto.builder()
+                .name("Beer")
+                .description("Waizen")
+                .available(false)
+                .build());
+
+        Assertions.assertTrue(itemSearch instanceof TrigramItemSearch);
+        Assertions.assertEquals(List.of(created), itemService.searchItem("GAMING", 0, 10));
+        Assertions.assertEquals(List.of(), itemService.searchItem("waizen", 0, 10));
+    }
+}
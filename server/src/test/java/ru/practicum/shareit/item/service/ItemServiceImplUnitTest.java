@@ -21,11 +21,13 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -44,9 +46,13 @@ class ItemServiceImplUnitTest {
     @Mock
     UserRepository userRepository;
     @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
     ItemRequestRepository itemRequestRepository;
     @Mock
     BookingRepository bookingRepository;
+    @Mock
+    ItemSearch itemSearch;
     @Captor
     ArgumentCaptor<Item> argumentCaptor;
     User firstUser;
@@ -157,6 +163,7 @@ class ItemServiceImplUnitTest {
         ItemDto actual = itemService.createItem(firstUser.getId(), itemDto);
 
         Mockito.verify(itemRepository, Mockito.times(1)).save(firstItem);
+        Mockito.verify(itemSearch, Mockito.times(1)).index(itemAfterSave);
         Assertions.assertEquals(actual, ItemMapper.mapToDto(itemAfterSave));
     }
 
@@ -199,8 +206,6 @@ class ItemServiceImplUnitTest {
 
         Mockito.when(userRepository.findById(firstUser.getId()))
                 .thenReturn(Optional.of(firstUser));
-        Mockito.when(itemRequestRepository.existsById(itemDto.getRequestId()))
-                .thenReturn(true);
         Mockito.when(itemRequestRepository.findById(firstItemRequest.getId()))
                 .thenReturn(Optional.of(firstItemRequest));
 
@@ -281,18 +286,20 @@ class ItemServiceImplUnitTest {
         List<Item> items = new ArrayList<>();
         items.add(firstItem);
 
-        Mockito.when(userRepository.existsById(1L))
+        Mockito.when(userExistenceCache.exists(1L))
                 .thenReturn(true);
         Mockito.when(itemRepository.findAllByOwnerId(firstItem.getOwner().getId(), PageRequest.of(0, 2)))
                 .thenReturn(items);
 
         List<ItemDto> itemsDto = items.stream().map(ItemMapper::mapToDto).collect(Collectors.toList());
-        Mockito.when(bookingRepository.findFirstBookingByItemIdAndStartIsAfterAndStateNotLikeOrderByStartAsc(
-                        Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(nextBooking);
-        Mockito.when(bookingRepository.findFirstBookingByItemIdAndStartIsBeforeAndStateNotLikeOrderByStartDesc(
-                        Mockito.anyLong(), Mockito.any(), Mockito.any()))
-                .thenReturn(lastBooking);
+        lastBooking.setItem(firstItem);
+        nextBooking.setItem(firstItem);
+        Mockito.when(bookingRepository.findNextBookingsByItemIds(
+                        Mockito.eq(List.of(1L)), Mockito.any(), Mockito.eq(BookingState.REJECTED)))
+                .thenReturn(List.of(nextBooking));
+        Mockito.when(bookingRepository.findLastBookingsByItemIds(
+                        Mockito.eq(List.of(1L)), Mockito.any(), Mockito.eq(BookingState.REJECTED)))
+                .thenReturn(List.of(lastBooking));
         itemsDto.get(0).setLastBooking(BookingMapper.mapToShortBooking(lastBooking));
         itemsDto.get(0).setNextBooking(BookingMapper.mapToShortBooking(nextBooking));
 
@@ -302,13 +309,24 @@ class ItemServiceImplUnitTest {
                 Mockito.times(1)).findAllByOwnerId(1L, PageRequest.of(0, 2));
     }
 
+    @Test
+    void getAllItemsByOwnerWithoutItemsSkipsBookingQueries() {
+        Mockito.when(userExistenceCache.exists(1L))
+                .thenReturn(true);
+        Mockito.when(itemRepository.findAllByOwnerId(1L, PageRequest.of(0, 2)))
+                .thenReturn(Collections.emptyList());
+
+        Assertions.assertTrue(itemService.getAllItemsByOwner(1L, 0, 2).isEmpty());
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getAllItemsByOwnerAndOwnerNotFound() {
         firstItem.setId(1L);
         List<Item> items = new ArrayList<>();
         items.add(firstItem);
 
-        Mockito.when(userRepository.existsById(1L))
+        Mockito.when(userExistenceCache.exists(1L))
                 .thenThrow(UserIdNotFoundException.class);
         Assertions.assertThrows(UserIdNotFoundException.class,
                 () -> itemService.getAllItemsByOwner(1L, null, null));
@@ -324,7 +342,7 @@ class ItemServiceImplUnitTest {
                 .map(CommentMapper::mapToCommentDto)
                 .collect(Collectors.toList()));
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(itemRepository.findById(firstItem.getId()))
                 .thenReturn(Optional.of(firstItem));
@@ -346,7 +364,7 @@ class ItemServiceImplUnitTest {
         itemDto.setLastBooking(BookingMapper.mapToShortBooking(lastBooking));
         itemDto.setNextBooking(BookingMapper.mapToShortBooking(nextBooking));
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(itemRepository.findById(firstItem.getId()))
                 .thenReturn(Optional.of(firstItem));
@@ -364,7 +382,7 @@ class ItemServiceImplUnitTest {
 
     @Test
     void getItemByIdAndItsUserIdNotFound() {
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(false);
 
         Assertions.assertThrows(UserIdNotFoundException.class, () -> itemService.getItemById(
@@ -377,7 +395,7 @@ class ItemServiceImplUnitTest {
     void getItemByIdAndItsItemNotFound() {
         firstItem.setId(1L);
 
-        Mockito.when(userRepository.existsById(firstUser.getId()))
+        Mockito.when(userExistenceCache.exists(firstUser.getId()))
                 .thenReturn(true);
         Mockito.when(itemRepository.findById(firstItem.getId()))
                 .thenThrow(ItemIdNotFoundException.class);
@@ -392,19 +410,12 @@ class ItemServiceImplUnitTest {
         List<Item> items = new ArrayList<>();
         items.add(secondItem);
         String text = "Beer";
-        Mockito.when(itemRepository.search(Mockito.anyString(), Mockito.any()))
-                .thenAnswer(invocationOnMock -> {
-                    String text1 = invocationOnMock.getArgument(0, String.class);
-                    if (text1.equals("Beer")) {
-                        return items;
-                    } else if (text1.isEmpty()) {
-                        return Collections.emptyList();
-                    }
-                    return null;
-                });
+        Mockito.when(itemSearch.search(text, PageRequest.of(0, 10)))
+                .thenReturn(items.stream().map(ItemMapper::mapToDto).collect(Collectors.toList()));
         Assertions.assertEquals(items.stream().map(ItemMapper::mapToDto).collect(Collectors.toList()),
                 itemService.searchItem(text, 0, 10));
         Assertions.assertEquals(Collections.emptyList(), itemService.searchItem("", 0, 10));
+        Mockito.verify(itemSearch, Mockito.times(1)).search(Mockito.anyString(), Mockito.any());
     }
 
     @Test
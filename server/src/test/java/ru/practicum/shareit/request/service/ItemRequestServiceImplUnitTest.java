@@ -19,6 +19,7 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -33,6 +34,8 @@ class ItemRequestServiceImplUnitTest {
     @Mock
     UserRepository userRepository;
     @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
     ItemRequestRepository itemRequestRepository;
     @InjectMocks
     ItemRequestServiceImpl itemRequestService;
@@ -121,7 +124,7 @@ class ItemRequestServiceImplUnitTest {
     void getRequestsByRequestorAndItsOk() {
         List<ItemRequest> itemRequests = new ArrayList<>();
         itemRequests.add(firstItemRequest);
-        Mockito.when(userRepository.existsById(thirdUser.getId()))
+        Mockito.when(userExistenceCache.exists(thirdUser.getId()))
                 .thenReturn(true);
         Mockito.when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(thirdUser.getId()))
                 .thenReturn(itemRequests);
@@ -137,7 +140,7 @@ class ItemRequestServiceImplUnitTest {
     @Test
     void getRequestsByRequestorAndEmptyListBack() {
         List<ItemRequest> itemRequests = new ArrayList<>();
-        Mockito.when(userRepository.existsById(thirdUser.getId()))
+        Mockito.when(userExistenceCache.exists(thirdUser.getId()))
                 .thenReturn(true);
         Mockito.when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(thirdUser.getId()))
                 .thenReturn(itemRequests);
@@ -149,7 +152,7 @@ class ItemRequestServiceImplUnitTest {
     @Test
     void getRequestsByRequestorAndUserNotFound() {
         List<ItemRequest> itemRequests = new ArrayList<>();
-        Mockito.when(userRepository.existsById(thirdUser.getId()))
+        Mockito.when(userExistenceCache.exists(thirdUser.getId()))
                 .thenReturn(false);
         Assertions.assertThrows(UserIdNotFoundException.class, () -> itemRequestService.getRequestsByRequestor(
                 thirdUser.getId()));
@@ -159,7 +162,7 @@ class ItemRequestServiceImplUnitTest {
 
     @Test
     void getRequestByRequestIdAndUserNotFound() {
-        Mockito.when(userRepository.existsById(thirdUser.getId()))
+        Mockito.when(userExistenceCache.exists(thirdUser.getId()))
                 .thenReturn(false);
         Assertions.assertThrows(UserIdNotFoundException.class, () -> itemRequestService.getRequestByRequestId(
                 thirdUser.getId(), firstItemRequest.getId()));
@@ -169,7 +172,7 @@ class ItemRequestServiceImplUnitTest {
 
     @Test
     void getRequestByRequestIdAndItsOk() {
-        Mockito.when(userRepository.existsById(thirdUser.getId()))
+        Mockito.when(userExistenceCache.exists(thirdUser.getId()))
                 .thenReturn(true);
         Mockito.when(itemRequestRepository.findById(firstItemRequest.getId()))
                 .thenReturn(Optional.of(firstItemRequest));
@@ -182,7 +185,7 @@ class ItemRequestServiceImplUnitTest {
 
     @Test
     void getRequestByRequestIdAndRequestNotFound() {
-        Mockito.when(userRepository.existsById(thirdUser.getId()))
+        Mockito.when(userExistenceCache.exists(thirdUser.getId()))
                 .thenReturn(true);
         Mockito.when(itemRequestRepository.findById(99L))
                 .thenThrow(RequestIdNotFoundException.class);
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.schema;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import ru.practicum.shareit.booking.enums.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the hot repository methods, captures the SQL Hibernate generates for them and checks its EXPLAIN plan on
+ * the migrated H2 schema, so an index regression in a real query fails here. The tables are filled and analyzed
+ * first: on empty tables the optimizer has no statistics and picks a join order at random.
+ */
+@DataJpaTest
+class QueryPlanTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    CapturingInspector inspector;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    @BeforeEach
+    void fillTables() {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users SELECT X, 'user' || X, 'user' || X || '@mail.ru' FROM SYSTEM_RANGE(1, 100)",
+                "INSERT INTO requests SELECT X, 'request', MOD(X, 100) + 1, TIMESTAMP '2024-01-01 00:00:00' " +
+                        "FROM SYSTEM_RANGE(1, 1000)",
+                "INSERT INTO items SELECT X, 'item', 'item', 'true', MOD(X, 100) + 1, X FROM SYSTEM_RANGE(1, 1000)",
+                "INSERT INTO bookings SELECT X, DATEADD('HOUR', X, TIMESTAMP '2024-01-01 00:00:00'), " +
+                        "DATEADD('HOUR', X + 1, TIMESTAMP '2024-01-01 00:00:00'), MOD(X, 1000) + 1, " +
+                        "MOD(X, 100) + 1, 'APPROVED' FROM SYSTEM_RANGE(1, 10000)",
+                "INSERT INTO comments SELECT X, 'text', MOD(X, 1000) + 1, MOD(X, 100) + 1, " +
+                        "TIMESTAMP '2024-01-01 00:00:00' FROM SYSTEM_RANGE(1, 1000)",
+                "ANALYZE");
+    }
+
+    @Test
+    void hotQueriesDoNotScanWholeTable() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 10);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("bookings of booker", () -> bookingRepository.getBookingListByBookerId(1L, page));
+        queries.put("past bookings of booker", () -> bookingRepository.getAllPastBookingsByBookerId(1L, now, page));
+        queries.put("bookings of owner", () -> bookingRepository.getBookingListByOwnerId(1L, page));
+        queries.put("bookings of booker after cursor",
+                () -> bookingRepository.seekBookingListByBookerId(1L, now, 1L, page));
+        queries.put("last booking of item", () -> bookingRepository
+                .findFirstBookingByItemIdAndStartIsBeforeAndStateNotLikeOrderByStartDesc(1L, now,
+                        BookingState.REJECTED));
+        queries.put("last bookings of items",
+                () -> bookingRepository.findLastBookingsByItemIds(List.of(1L, 2L, 3L), now, BookingState.REJECTED));
+        queries.put("occupying bookings of item", () -> bookingRepository.findAllByItemIdAndStateIn(1L,
+                List.of(BookingState.WAITING, BookingState.APPROVED)));
+        queries.put("items of owner", () -> itemRepository.findAllByOwnerId(1L, page));
+        queries.put("comments of item", () -> commentRepository.findAllByItemId(1L));
+        queries.put("requests of requestor", () -> itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(1L));
+
+        List<Executable> checks = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            inspector.statements.clear();
+            query.run();
+            Assertions.assertFalse(inspector.statements.isEmpty(), () -> "No statement captured for " + name);
+            for (String sql : List.copyOf(inspector.statements)) {
+                String plan = explain(sql);
+                checks.add(() -> Assertions.assertFalse(plan.contains("tableScan"),
+                        () -> "Sequential scan in plan of " + name + ": " + plan));
+            }
+        });
+        Assertions.assertAll(checks);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatementCallback<String>) statement -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class StatementCapture {
+        @Bean
+        CapturingInspector capturingInspector() {
+            return new CapturingInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(CapturingInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    static class CapturingInspector implements StatementInspector {
+        final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@Slf4j
+class SchemaMigrationTest {
+    private static final int RESTARTS = 20;
+
+    @Test
+    void restartKeepsDataAndAppliesNothing() {
+        DataSource dataSource = newDatabase("restart");
+        Assertions.assertEquals(4, flyway(dataSource).migrate().migrationsExecuted);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('maks', 'maks220@mail.ru')");
+
+        MigrateResult restart = flyway(dataSource).migrate();
+
+        Assertions.assertEquals(0, restart.migrationsExecuted);
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+
+    @Test
+    void legacySchemaIsBaselinedAndIdSequencesStartAfterExistingRows() throws SQLException {
+        DataSource dataSource = newDatabase("legacy");
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/common/V1__create_schema.sql"));
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('maks', 'maks220@mail.ru')");
+
+        MigrateResult result = flyway(dataSource).migrate();
+
+        Assertions.assertEquals(3, result.migrationsExecuted);
+        Assertions.assertEquals("4", result.targetSchemaVersion);
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class));
+    }
+
+    @Test
+    void startupMigrationTime() {
+        DataSource dataSource = newDatabase("benchmark");
+        long freshStart = System.nanoTime();
+        flyway(dataSource).migrate();
+        long freshNanos = System.nanoTime() - freshStart;
+
+        long restartStart = System.nanoTime();
+        for (int i = 0; i < RESTARTS; i++) {
+            Assertions.assertEquals(0, flyway(dataSource).migrate().migrationsExecuted);
+        }
+        long restartNanos = (System.nanoTime() - restartStart) / RESTARTS;
+
+        log.info("Schema bootstrap: fresh database {} ms, up-to-date database {} ms on average of {} restarts",
+                freshNanos / 1_000_000.0, restartNanos / 1_000_000.0, RESTARTS);
+    }
+
+    private DataSource newDatabase(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "test", "test");
+    }
+
+    private Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -126,4 +128,53 @@ class UserControllerTest {
                 .andExpect(status().is(200))
                 .andExpect(content().json(objectMapper.writeValueAsString(Collections.emptyList())));
     }
+
+    @SneakyThrows
+    @Test
+    void userGetListWithMatchingETagReturnsNotModifiedTest() {
+        UserDto user = UserDto.builder()
+                .email("user@user.com")
+                .name("user")
+                .build();
+        mockMvc.perform(post("/users")
+                .contentType("application/json")
+                .content(objectMapper.writeValueAsString(user)));
+
+        String eTag = mockMvc.perform(get("/users"))
+                .andExpect(status().is(200))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/users")
+                .contentType("application/json")
+                .content(objectMapper.writeValueAsString(UserDto.builder()
+                        .email("other@user.com")
+                        .name("other")
+                        .build())));
+
+        mockMvc.perform(get("/users")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().is(200));
+    }
+
+    @SneakyThrows
+    @Test
+    void userCreatedFromSmileBodyTest() {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        UserDto user = UserDto.builder()
+                .email("user@user.com")
+                .name("user")
+                .build();
+        mockMvc.perform(post("/users")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/json")
+                        .content(smileMapper.writeValueAsBytes(user)))
+                .andExpect(status().is(200))
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(content().json("{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}"));
+    }
 }
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+
+    @Mock
+    UserRepository userRepository;
+    UserExistenceCache userExistenceCache;
+
+    @BeforeEach
+    void init() {
+        userExistenceCache = new UserExistenceCache(userRepository, 2);
+    }
+
+    @Test
+    void knownUserIsCheckedOnlyOnce() {
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(true);
+
+        Assertions.assertTrue(userExistenceCache.exists(1L));
+        Assertions.assertTrue(userExistenceCache.exists(1L));
+        Mockito.verify(userRepository, Mockito.times(1)).existsById(1L);
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
+
+        Assertions.assertFalse(userExistenceCache.exists(1L));
+        Assertions.assertFalse(userExistenceCache.exists(1L));
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(1L);
+    }
+
+    @Test
+    void createdUserNeedsNoQueryAndDeletedUserIsQueriedAgain() {
+        userExistenceCache.add(1L);
+        Assertions.assertTrue(userExistenceCache.exists(1L));
+        Mockito.verify(userRepository, Mockito.never()).existsById(1L);
+
+        userExistenceCache.remove(1L);
+        Mockito.when(userRepository.existsById(1L))
+                .thenReturn(false);
+
+        Assertions.assertFalse(userExistenceCache.exists(1L));
+    }
+
+    @Test
+    void leastRecentlyUsedUserIsEvicted() {
+        userExistenceCache.add(1L);
+        userExistenceCache.add(2L);
+        userExistenceCache.exists(1L);
+        userExistenceCache.add(3L);
+        Mockito.when(userRepository.existsById(2L))
+                .thenReturn(true);
+
+        Assertions.assertTrue(userExistenceCache.exists(1L));
+        Assertions.assertTrue(userExistenceCache.exists(2L));
+        Mockito.verify(userRepository, Mockito.never()).existsById(1L);
+        Mockito.verify(userRepository).existsById(2L);
+    }
+
+    @Test
+    void concurrentLookupsStayWithinMaxSize() throws InterruptedException {
+        userExistenceCache = new UserExistenceCache(userRepository, 100);
+        Mockito.when(userRepository.existsById(Mockito.anyLong()))
+                .thenReturn(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (long userId = 1; userId <= 1000; userId++) {
+            long id = userId;
+            executor.execute(() -> userExistenceCache.exists(id));
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Mockito.verify(userRepository, Mockito.times(1000)).existsById(Mockito.anyLong());
+        Assertions.assertTrue(userExistenceCache.size() <= 100);
+    }
+}
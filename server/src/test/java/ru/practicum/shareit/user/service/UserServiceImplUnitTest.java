@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.config.ReadYourWrites;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.exceptions.UserIdNotFoundException;
@@ -23,6 +25,10 @@ class UserServiceImplUnitTest {
     UserServiceImpl userService;
     @Mock
     UserRepository userRepository;
+    @Mock
+    UserExistenceCache userExistenceCache;
+    @Mock
+    ObjectProvider<ReadYourWrites> readYourWrites;
     @Captor
     ArgumentCaptor<User> argumentCaptor;
 
@@ -68,6 +74,7 @@ class UserServiceImplUnitTest {
                 userService.createUser(UserMapper.mapToDto(firstUser)));
         Mockito.verify(userRepository).save(firstUser);
         Mockito.verify(userRepository, Mockito.times(1)).save(firstUser);
+        Mockito.verify(userExistenceCache).add(1L);
     }
 
     @Test
@@ -130,5 +137,6 @@ class UserServiceImplUnitTest {
     void deleteUser() {
         userService.deleteUser(Mockito.anyLong());
         Mockito.verify(userRepository, Mockito.times(1)).deleteById(Mockito.anyLong());
+        Mockito.verify(userExistenceCache).remove(Mockito.anyLong());
     }
 }
\ No newline at end of file